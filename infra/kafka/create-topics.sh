@@ -14,10 +14,22 @@ kafka-topics --create --if-not-exists --bootstrap-server kafka:29092 \
   --topic order.commands --partitions 3 --replication-factor 1 \
   --config retention.ms=604800000
 
+# Delayed retries of saga events order-service could not apply (1s, 4s, 16s)
+for tier in 0 1 2; do
+  kafka-topics --create --if-not-exists --bootstrap-server kafka:29092 \
+    --topic order.saga.retry-$tier --partitions 3 --replication-factor 1 \
+    --config retention.ms=604800000
+done
+
 kafka-topics --create --if-not-exists --bootstrap-server kafka:29092 \
   --topic order.dlq --partitions 1 --replication-factor 1 \
   --config retention.ms=2592000000
 
+# Saga progress fan-out between order-service replicas (notifications only)
+kafka-topics --create --if-not-exists --bootstrap-server kafka:29092 \
+  --topic order.progress --partitions 3 --replication-factor 1 \
+  --config retention.ms=3600000
+
 # Inventory domain
 kafka-topics --create --if-not-exists --bootstrap-server kafka:29092 \
   --topic inventory.events --partitions 3 --replication-factor 1 \
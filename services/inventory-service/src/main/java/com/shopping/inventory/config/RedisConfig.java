@@ -1,7 +1,12 @@
 package com.shopping.inventory.config;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.inventory.dto.InventoryResponse;
+import com.shopping.inventory.service.InventoryCache;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,11 +14,17 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
+    /**
+     * The inventory caches store plain JSON without type hints, so each is read back with a serializer bound
+     * to its value type; a generic serializer would hand back maps.
+     */
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
         RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
@@ -22,8 +33,20 @@ public class RedisConfig {
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new GenericJackson2JsonRedisSerializer(objectMapper)));
 
+        JavaType inventory = objectMapper.constructType(InventoryResponse.class);
+        JavaType inventories = objectMapper.getTypeFactory().constructCollectionType(List.class, inventory);
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(configuration)
+                .withInitialCacheConfigurations(Map.of(
+                        InventoryCache.BY_PRODUCT, typed(configuration, objectMapper, inventories),
+                        InventoryCache.BY_SKU, typed(configuration, objectMapper, inventory),
+                        InventoryCache.BY_VARIANT, typed(configuration, objectMapper, inventory)))
                 .build();
     }
+
+    private RedisCacheConfiguration typed(RedisCacheConfiguration defaults, ObjectMapper objectMapper,
+                                          JavaType type) {
+        RedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, type);
+        return defaults.serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+    }
 }
@@ -1,8 +1,11 @@
 package com.shopping.inventory.controller;
 
+import com.shopping.inventory.dto.BulkStockCheckRequest;
+import com.shopping.inventory.dto.BulkStockCheckResponse;
 import com.shopping.inventory.dto.InventoryResponse;
 import com.shopping.inventory.dto.StockCheckResponse;
 import com.shopping.inventory.service.InventoryQueryService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -11,6 +14,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -37,6 +42,11 @@ public class InventoryController {
         return inventoryQueryService.checkAvailability(productId, variantId, quantity);
     }
 
+    @PostMapping("/availability")
+    public BulkStockCheckResponse checkAvailability(@RequestBody @Valid BulkStockCheckRequest request) {
+        return inventoryQueryService.checkAvailability(request.items());
+    }
+
     @GetMapping("/sku/{sku}")
     public InventoryResponse getBySku(@PathVariable String sku) {
         return inventoryQueryService.getInventoryBySku(sku);
@@ -0,0 +1,11 @@
+package com.shopping.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkStockCheckRequest(
+        @NotEmpty @Size(max = 200) List<@Valid StockCheckItemRequest> items
+) {
+}
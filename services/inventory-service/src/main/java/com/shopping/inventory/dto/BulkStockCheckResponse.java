@@ -0,0 +1,9 @@
+package com.shopping.inventory.dto;
+
+import java.util.List;
+
+public record BulkStockCheckResponse(
+        boolean available,
+        List<StockCheckItemResponse> items
+) {
+}
@@ -0,0 +1,23 @@
+package com.shopping.inventory.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+public record StockCheckItemRequest(
+        UUID productId,
+        UUID variantId,
+        String sku,
+        @NotNull @Min(1) Integer quantity
+) {
+
+    public boolean hasSku() {
+        return sku != null && !sku.isBlank();
+    }
+
+    @AssertTrue(message = "each item needs sku or productId+variantId")
+    public boolean isIdentified() {
+        return hasSku() || (productId != null && variantId != null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.shopping.inventory.dto;
+
+import java.util.UUID;
+
+public record StockCheckItemResponse(
+        UUID productId,
+        UUID variantId,
+        String sku,
+        Integer requestedQuantity,
+        Integer availableQuantity,
+        boolean available,
+        String message
+) {
+}
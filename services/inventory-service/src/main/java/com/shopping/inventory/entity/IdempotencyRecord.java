@@ -3,13 +3,17 @@ package com.shopping.inventory.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Getter
 @Setter
@@ -18,11 +22,26 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "idempotency_store")
-public class IdempotencyRecord {
+public class IdempotencyRecord implements Persistable<IdempotencyRecordId> {
 
     @EmbeddedId
     private IdempotencyRecordId id;
 
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
+
+    // save() persists instead of merging, so a duplicate key fails on the primary key rather than updating.
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
 }
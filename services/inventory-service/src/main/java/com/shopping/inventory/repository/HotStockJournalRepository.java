@@ -0,0 +1,32 @@
+package com.shopping.inventory.repository;
+
+import com.shopping.inventory.entity.HotStockJournalEntry;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface HotStockJournalRepository extends JpaRepository<HotStockJournalEntry, Long> {
+
+    // Deletes the oldest entries and folds them into their inventory rows in one statement, so an entry is
+    // applied exactly once however many instances drain concurrently. Returns the number of rows updated.
+    @Modifying
+    @Transactional
+    @Query(value = "WITH drained AS (DELETE FROM hot_stock_journal WHERE id IN ("
+            + "SELECT id FROM hot_stock_journal ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING inventory_id, reserved_delta, total_delta), "
+            + "totals AS (SELECT inventory_id, SUM(reserved_delta) AS reserved, SUM(total_delta) AS total "
+            + "FROM drained GROUP BY inventory_id) "
+            + "UPDATE inventory i SET reserved_quantity = i.reserved_quantity + t.reserved, "
+            + "total_quantity = i.total_quantity + t.total, version = i.version + 1, updated_at = now() "
+            + "FROM totals t WHERE i.id = t.inventory_id", nativeQuery = true)
+    int drain(@Param("limit") int limit);
+
+    // Available quantity of the row as it will be once every pending entry is drained.
+    @Query(value = "SELECT i.total_quantity - i.reserved_quantity + COALESCE(("
+            + "SELECT SUM(j.total_delta - j.reserved_delta) FROM hot_stock_journal j "
+            + "WHERE j.inventory_id = i.id), 0) FROM inventory i WHERE i.id = :id", nativeQuery = true)
+    Long findAvailableIncludingJournal(@Param("id") UUID inventoryId);
+}
@@ -1,8 +1,29 @@
 package com.shopping.inventory.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 import com.shopping.inventory.entity.IdempotencyRecord;
 import com.shopping.inventory.entity.IdempotencyRecordId;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.id FROM IdempotencyRecord r WHERE r.processedAt >= :since ORDER BY r.processedAt")
+    Stream<IdempotencyRecordId> streamIdsProcessedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_store WHERE (consumer_id, event_id) IN ("
+            + "SELECT consumer_id, event_id FROM idempotency_store WHERE processed_at < :cutoff "
+            + "ORDER BY processed_at LIMIT :limit)", nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
@@ -1,10 +1,18 @@
 package com.shopping.inventory.repository;
 
 import com.shopping.inventory.entity.Inventory;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
 
@@ -13,4 +21,64 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     Optional<Inventory> findByProductIdAndVariantId(UUID productId, UUID variantId);
 
     Optional<Inventory> findBySku(String sku);
+
+    // Callers match (productId, variantId) pairs exactly; the query only narrows by variant.
+    @Query("SELECT i FROM Inventory i WHERE i.sku IN :skus OR i.variantId IN :variantIds")
+    List<Inventory> findAllBySkuOrVariant(@Param("skus") Collection<String> skus,
+                                          @Param("variantIds") Collection<UUID> variantIds);
+
+    // Locks the matched rows in id order, so transactions touching the same rows cannot deadlock. Callers
+    // match (productId, variantId) pairs exactly; the query only narrows by variant.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.sku IN :skus OR i.variantId IN :variantIds ORDER BY i.id")
+    List<Inventory> findAllForUpdate(@Param("skus") Collection<String> skus,
+                                     @Param("variantIds") Collection<UUID> variantIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id IN :ids ORDER BY i.id")
+    List<Inventory> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /*
+     * Stock mutations apply every line of an order in one statement. Each line carries its own guard, and a
+     * row whose guard does not hold is left alone, so callers compare the returned count with the number of
+     * lines. The version is still bumped so entity-based writers elsewhere keep detecting concurrent changes.
+     */
+
+    @Modifying
+    @Query(value = "UPDATE inventory i SET reserved_quantity = i.reserved_quantity + l.quantity, "
+            + "version = i.version + 1, updated_at = now() "
+            + "FROM unnest(CAST(:ids AS uuid[]), CAST(:quantities AS int[])) AS l(id, quantity) "
+            + "WHERE i.id = l.id AND i.total_quantity - i.reserved_quantity >= l.quantity", nativeQuery = true)
+    int reserveStock(@Param("ids") String idArray, @Param("quantities") String quantityArray);
+
+    @Modifying
+    @Query(value = "UPDATE inventory i SET reserved_quantity = i.reserved_quantity - l.quantity, "
+            + "total_quantity = i.total_quantity - l.quantity, version = i.version + 1, updated_at = now() "
+            + "FROM unnest(CAST(:ids AS uuid[]), CAST(:quantities AS int[])) AS l(id, quantity) "
+            + "WHERE i.id = l.id AND i.reserved_quantity >= l.quantity AND i.total_quantity >= l.quantity",
+            nativeQuery = true)
+    int commitStock(@Param("ids") String idArray, @Param("quantities") String quantityArray);
+
+    @Modifying
+    @Query(value = "UPDATE inventory i SET reserved_quantity = i.reserved_quantity - l.quantity, "
+            + "version = i.version + 1, updated_at = now() "
+            + "FROM unnest(CAST(:ids AS uuid[]), CAST(:quantities AS int[])) AS l(id, quantity) "
+            + "WHERE i.id = l.id AND i.reserved_quantity >= l.quantity", nativeQuery = true)
+    int releaseStock(@Param("ids") String idArray, @Param("quantities") String quantityArray);
+
+    default int reserveStock(Map<UUID, Integer> quantities) {
+        return reserveStock(arrayOf(quantities.keySet()), arrayOf(quantities.values()));
+    }
+
+    default int commitStock(Map<UUID, Integer> quantities) {
+        return commitStock(arrayOf(quantities.keySet()), arrayOf(quantities.values()));
+    }
+
+    default int releaseStock(Map<UUID, Integer> quantities) {
+        return releaseStock(arrayOf(quantities.keySet()), arrayOf(quantities.values()));
+    }
+
+    private static String arrayOf(Collection<?> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
 }
@@ -1,11 +1,40 @@
 package com.shopping.inventory.repository;
 
 import com.shopping.inventory.entity.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
     List<OutboxEvent> findByPublishedFalseOrderByCreatedAtAsc(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET published = true, published_at = :publishedAt "
+            + "WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    int markPublished(@Param("ids") String idArray, @Param("publishedAt") LocalDateTime publishedAt);
+
+    default int markPublished(Collection<UUID> ids, LocalDateTime publishedAt) {
+        return markPublished(ids.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}")),
+                publishedAt);
+    }
+
+    long countByPublishedFalse();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.published = false")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM outbox_events WHERE id IN ("
+            + "SELECT id FROM outbox_events WHERE published = true AND published_at < :cutoff "
+            + "ORDER BY published_at LIMIT :limit)", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
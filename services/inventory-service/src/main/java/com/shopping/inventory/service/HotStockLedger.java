@@ -0,0 +1,269 @@
+package com.shopping.inventory.service;
+
+import com.shopping.inventory.entity.Inventory;
+import com.shopping.inventory.repository.HotStockJournalRepository;
+import com.shopping.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis-held availability for flash-sale SKUs listed in {@code app.inventory.hot-sku.skus}. Reservations of
+ * those SKUs take stock from {@code shards} sub-counters through a Lua script instead of updating the
+ * {@code inventory} row, so they no longer queue on its row lock. A take only succeeds while the counters
+ * cover the whole quantity, and counters are only ever seeded from the database, so stock cannot be oversold.
+ *
+ * <p>Every hot stock movement is also written to {@code hot_stock_journal} in the transaction that causes it;
+ * {@link HotStockReconciler} folds the journal into the {@code inventory} row shortly after. Counters are
+ * seeded from the row plus the undrained journal, once, when no shard exists yet. The shards share a hash
+ * tag so a single script sees all of them, and a take starts at a random shard to spread the decrements.
+ *
+ * <p>Counters only describe the row while every reservation of the SKU goes through them. Once a SKU leaves
+ * the list its row sells directly, so each instance deletes the counters of unlisted SKUs when it starts,
+ * hot mode enabled or not; a SKU listed again later is seeded from its current row instead.
+ *
+ * <p>Every instance must run with the same SKU list: an instance still reserving a hot SKU against the row
+ * would not be seen by the counters. Redis must persist its data: counters lost while stock is moving are
+ * seeded again from a database view that may not include the movements still in flight.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotStockLedger {
+
+    private static final String KEY_PREFIX = "hot-stock:";
+
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS do
+              if redis.call('EXISTS', KEYS[i]) == 1 then
+                return 0
+              end
+            end
+            local available = math.max(tonumber(ARGV[1]), 0)
+            local share = math.floor(available / #KEYS)
+            local rest = available % #KEYS
+            for i = 1, #KEYS do
+              redis.call('SET', KEYS[i], share + (i <= rest and 1 or 0))
+            end
+            return 1
+            """, Long.class);
+
+    // Returns 1 when the quantity was taken, 0 when the shards do not hold enough, -1 when none is seeded.
+    private static final RedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local wanted = tonumber(ARGV[1])
+            local start = tonumber(ARGV[2])
+            local first = tonumber(redis.call('GET', KEYS[start + 1]) or '0')
+            if first >= wanted then
+              redis.call('DECRBY', KEYS[start + 1], wanted)
+              return 1
+            end
+            local counts = {}
+            local total = 0
+            local seeded = false
+            for i = 1, #KEYS do
+              local count = redis.call('GET', KEYS[i])
+              seeded = seeded or count ~= false
+              counts[i] = tonumber(count or '0')
+              total = total + counts[i]
+            end
+            if not seeded then
+              return -1
+            end
+            if total < wanted then
+              return 0
+            end
+            local i = start
+            while wanted > 0 do
+              local shard = i % #KEYS + 1
+              local taken = math.min(counts[shard], wanted)
+              if taken > 0 then
+                redis.call('DECRBY', KEYS[shard], taken)
+                wanted = wanted - taken
+              end
+              i = i + 1
+            end
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+              return redis.call('INCRBY', KEYS[1], ARGV[1])
+            end
+            return -1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final HotStockJournalRepository journalRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.inventory.hot-sku.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.hot-sku.skus:}")
+    private List<String> skus;
+
+    @Value("${app.inventory.hot-sku.shards:8}")
+    private int shards;
+
+    private final Map<UUID, List<String>> shardKeys = new ConcurrentHashMap<>();
+    private final Map<UUID, Inventory> hotInventories = new ConcurrentHashMap<>();
+
+    // Runs before the Kafka listeners start, so no reservation of a listed SKU reaches the row once it is hot.
+    @PostConstruct
+    void activate() {
+        if (enabled) {
+            loadHotInventories();
+        }
+        discardUnlistedCounters();
+        shardKeys.keySet().forEach(this::seedIfMissing);
+    }
+
+    private void loadHotInventories() {
+        for (String sku : skus) {
+            if (sku.isBlank()) {
+                continue;
+            }
+            Optional<Inventory> inventory = inventoryRepository.findBySku(sku.trim());
+            if (inventory.isEmpty()) {
+                log.warn("Hot SKU {} has no inventory row, ignoring it", sku);
+                continue;
+            }
+            UUID inventoryId = inventory.get().getId();
+            hotInventories.put(inventoryId, inventory.get());
+            shardKeys.put(inventoryId, IntStream.range(0, shards)
+                    .mapToObj(shard -> KEY_PREFIX + "{" + inventoryId + "}:" + shard)
+                    .toList());
+            log.info("Reserving SKU {} from {} Redis sub-counters", sku, shards);
+        }
+    }
+
+    /**
+     * Deletes the counters of every inventory that is not hot on this instance. They stopped tracking the row
+     * when their SKU left the list, and seeding skips an inventory whose counters still exist.
+     */
+    private void discardUnlistedCounters() {
+        List<String> stale = new ArrayList<>();
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "{*}:*").count(1000).build())) {
+            keys.forEachRemaining(key -> {
+                UUID inventoryId = inventoryIdOf(key);
+                if (inventoryId != null && !shardKeys.containsKey(inventoryId)) {
+                    stale.add(key);
+                }
+            });
+            if (!stale.isEmpty()) {
+                redisTemplate.delete(stale);
+                log.info("Deleted {} hot stock counters of SKUs no longer in hot mode", stale.size());
+            }
+        } catch (RuntimeException e) {
+            if (enabled) {
+                throw e;
+            }
+            log.warn("Deleting hot stock counters of SKUs no longer in hot mode failed: {}", e.getMessage());
+        }
+    }
+
+    private UUID inventoryIdOf(String key) {
+        try {
+            return UUID.fromString(key.substring(key.indexOf('{') + 1, key.indexOf('}')));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean isHot(UUID inventoryId) {
+        return shardKeys.containsKey(inventoryId);
+    }
+
+    /**
+     * Resolves a reservation line to a hot inventory without reading its row, using the identifiers loaded at
+     * activation. Matches the way lines are resolved against the database: by sku if given, else by variant.
+     */
+    public Optional<Inventory> findHot(String sku, UUID productId, UUID variantId) {
+        if (hotInventories.isEmpty()) {
+            return Optional.empty();
+        }
+        return hotInventories.values().stream()
+                .filter(inventory -> sku != null && !sku.isBlank()
+                        ? sku.equals(inventory.getSku())
+                        : inventory.getProductId().equals(productId) && inventory.getVariantId().equals(variantId))
+                .findFirst();
+    }
+
+    public List<Inventory> hotInventories() {
+        return List.copyOf(hotInventories.values());
+    }
+
+    public List<UUID> hotInventoryIds() {
+        return List.copyOf(shardKeys.keySet());
+    }
+
+    /**
+     * Takes {@code quantity} from the counters of a hot inventory. Returns false, leaving the counters as they
+     * were, when they do not hold that much. Redis failures propagate so the reservation fails.
+     */
+    public boolean tryReserve(UUID inventoryId, int quantity) {
+        List<String> keys = shardKeys.get(inventoryId);
+        Long result = redisTemplate.execute(TAKE_SCRIPT, keys, String.valueOf(quantity),
+                String.valueOf(ThreadLocalRandom.current().nextInt(keys.size())));
+        if (result != null && result < 0) {
+            log.warn("Hot stock counters of inventory {} are missing, rejecting until they are seeded", inventoryId);
+        }
+        boolean reserved = result != null && result > 0;
+        meterRegistry.counter("inventory.hot.reservations", "outcome", reserved ? "reserved" : "rejected")
+                .increment();
+        return reserved;
+    }
+
+    /**
+     * Returns {@code quantity} to the counters. Never throws: stock that cannot be returned is only unsellable
+     * until the counters are seeded again.
+     */
+    public void release(UUID inventoryId, int quantity) {
+        List<String> keys = shardKeys.get(inventoryId);
+        String key = keys.get(ThreadLocalRandom.current().nextInt(keys.size()));
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), String.valueOf(quantity));
+        } catch (RuntimeException e) {
+            log.warn("Returning {} units of inventory {} to hot stock failed: {}", quantity, inventoryId,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Seeds the counters of a hot inventory from the database if none of them exists, for example after
+     * activation or after Redis lost them.
+     */
+    public void seedIfMissing(UUID inventoryId) {
+        List<String> keys = shardKeys.get(inventoryId);
+        Long existing = redisTemplate.countExistingKeys(keys);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        Long available = journalRepository.findAvailableIncludingJournal(inventoryId);
+        if (available == null) {
+            return;
+        }
+        Long seeded = redisTemplate.execute(SEED_SCRIPT, keys, String.valueOf(available));
+        if (seeded != null && seeded > 0) {
+            log.info("Seeded hot stock of inventory {} with {} units", inventoryId, available);
+        }
+    }
+}
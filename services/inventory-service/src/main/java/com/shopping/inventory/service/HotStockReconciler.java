@@ -0,0 +1,52 @@
+package com.shopping.inventory.service;
+
+import com.shopping.inventory.repository.HotStockJournalRepository;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds {@code hot_stock_journal} into the {@code inventory} rows in bounded batches. It runs whether or not
+ * hot mode is enabled, so the journal of a SKU taken out of hot mode still drains. It also seeds the
+ * counters of hot SKUs that Redis no longer has, and evicts the cached views of hot rows it changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotStockReconciler {
+
+    private final HotStockJournalRepository journalRepository;
+    private final HotStockLedger hotStockLedger;
+    private final InventoryCache inventoryCache;
+
+    @Value("${app.inventory.hot-sku.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.inventory.hot-sku.reconcile.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-sku.reconcile.interval-ms:500}")
+    public void reconcile() {
+        int updated = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int rows = journalRepository.drain(batchSize);
+            if (rows == 0) {
+                break;
+            }
+            updated += rows;
+        }
+        if (updated > 0) {
+            inventoryCache.evict(hotStockLedger.hotInventories());
+        }
+        for (UUID inventoryId : hotStockLedger.hotInventoryIds()) {
+            try {
+                hotStockLedger.seedIfMissing(inventoryId);
+            } catch (RuntimeException e) {
+                log.warn("Checking hot stock counters of inventory {} failed: {}", inventoryId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.shopping.inventory.service;
+
+import com.shopping.inventory.entity.IdempotencyRecordId;
+import com.shopping.inventory.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory Bloom filter over processed {@code idempotency_store} keys. A negative answer is definite, so
+ * the database is only asked about events the filter may have seen.
+ *
+ * <p>The filter keeps two generations, each sized for {@code expected-insertions} keys; when the current
+ * one fills up it replaces the previous one, which bounds memory to roughly the most recent
+ * {@code 2 * expected-insertions} keys. Until the startup warm-up has loaded {@code warm-up-window} of
+ * history every lookup goes to the database. On partition assignment the keys written since the last sync
+ * (for example by the instance that owned the partition before) are loaded again. Anything that still slips
+ * through fails on the {@code idempotency_store} primary key, and the key is already in the filter by then,
+ * so the redelivery is checked against the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter implements ConsumerAwareRebalanceListener {
+
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.filter.expected-insertions:1000000}")
+    private int expectedInsertions;
+
+    @Value("${app.idempotency.filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.idempotency.filter.warm-up-window:168h}")
+    private Duration warmUpWindow;
+
+    private final AtomicLong avoided = new AtomicLong();
+    private final AtomicLong checked = new AtomicLong();
+    private Counter duplicateCounter;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile boolean ready;
+    private volatile LocalDateTime syncedUntil;
+
+    @PostConstruct
+    void init() {
+        current = new Generation(expectedInsertions, falsePositiveRate);
+        previous = new Generation(expectedInsertions, falsePositiveRate);
+
+        FunctionCounter.builder("idempotency.filter.lookups", avoided, AtomicLong::get)
+                .description("Idempotency checks answered by the in-memory filter without a database lookup")
+                .tag("result", "avoided")
+                .register(meterRegistry);
+        FunctionCounter.builder("idempotency.filter.lookups", checked, AtomicLong::get)
+                .description("Idempotency checks that fell back to the database")
+                .tag("result", "database")
+                .register(meterRegistry);
+        Gauge.builder("idempotency.filter.avoided.ratio", this, IdempotencyFilter::avoidedRatio)
+                .description("Share of idempotency checks that skipped the database")
+                .register(meterRegistry);
+        duplicateCounter = Counter.builder("idempotency.filter.duplicates")
+                .description("Database lookups that found an already processed event")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            long loaded = load(startedAt.minus(warmUpWindow));
+            syncedUntil = startedAt;
+            ready = true;
+            log.info("Idempotency filter warmed up with {} keys from the last {}", loaded, warmUpWindow);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency filter warm-up failed, all checks will use the database: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        LocalDateTime since = syncedUntil;
+        if (!ready || since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            long loaded = load(since.minus(CATCH_UP_OVERLAP));
+            syncedUntil = startedAt;
+            log.debug("Idempotency filter caught up with {} keys after partition assignment", loaded);
+        } catch (RuntimeException e) {
+            ready = false;
+            log.warn("Idempotency filter catch-up failed, all checks will use the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns {@code false} only if {@code eventId} has definitely not been processed by {@code consumerId}.
+     */
+    public boolean mightBeProcessed(String consumerId, UUID eventId) {
+        return !mightBeProcessed(consumerId, List.of(eventId)).isEmpty();
+    }
+
+    /**
+     * Returns the subset of {@code eventIds} that may already have been processed and therefore needs a
+     * database lookup. The rest are definitely new.
+     */
+    public List<UUID> mightBeProcessed(String consumerId, Collection<UUID> eventIds) {
+        if (!enabled || !ready) {
+            checked.addAndGet(eventIds.size());
+            return new ArrayList<>(eventIds);
+        }
+        List<UUID> candidates = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            if (mightContain(consumerId, eventId)) {
+                candidates.add(eventId);
+            }
+        }
+        checked.addAndGet(candidates.size());
+        avoided.addAndGet(eventIds.size() - candidates.size());
+        return candidates;
+    }
+
+    public void recordDuplicates(int count) {
+        duplicateCounter.increment(count);
+    }
+
+    public void put(String consumerId, UUID eventId) {
+        if (!enabled) {
+            return;
+        }
+        long h1 = hash1(consumerId, eventId);
+        long h2 = hash2(consumerId, eventId);
+        Generation generation = current;
+        generation.put(h1, h2);
+        if (generation.isFull()) {
+            rotate(generation);
+        }
+    }
+
+    private boolean mightContain(String consumerId, UUID eventId) {
+        long h1 = hash1(consumerId, eventId);
+        long h2 = hash2(consumerId, eventId);
+        return current.mightContain(h1, h2) || previous.mightContain(h1, h2);
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current != full) {
+            return;
+        }
+        previous = full;
+        current = new Generation(expectedInsertions, falsePositiveRate);
+    }
+
+    private long load(LocalDateTime since) {
+        Long loaded = transactionTemplate.execute(status -> {
+            try (Stream<IdempotencyRecordId> ids = idempotencyRecordRepository.streamIdsProcessedSince(since)) {
+                AtomicLong count = new AtomicLong();
+                ids.forEach(id -> {
+                    put(id.getConsumerId(), id.getEventId());
+                    count.incrementAndGet();
+                });
+                return count.get();
+            }
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    private double avoidedRatio() {
+        long avoidedCount = avoided.get();
+        long total = avoidedCount + checked.get();
+        return total == 0 ? 0.0 : (double) avoidedCount / total;
+    }
+
+    private static long hash1(String consumerId, UUID eventId) {
+        return mix(eventId.getMostSignificantBits() ^ consumerId.hashCode());
+    }
+
+    private static long hash2(String consumerId, UUID eventId) {
+        return mix(eventId.getLeastSignificantBits() + 0x9E3779B97F4A7C15L * consumerId.hashCode()) | 1L;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final long capacity;
+        private final AtomicLong insertions = new AtomicLong();
+
+        Generation(long capacity, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isFull() {
+            return insertions.get() >= capacity;
+        }
+    }
+}
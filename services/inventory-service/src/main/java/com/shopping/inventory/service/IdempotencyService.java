@@ -14,10 +14,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class IdempotencyService {
 
     private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyFilter idempotencyFilter;
 
     @Transactional(readOnly = true)
     public boolean isProcessed(String consumerId, UUID eventId) {
-        return idempotencyRecordRepository.existsById(new IdempotencyRecordId(consumerId, eventId));
+        if (!idempotencyFilter.mightBeProcessed(consumerId, eventId)) {
+            return false;
+        }
+        boolean processed = idempotencyRecordRepository.existsById(new IdempotencyRecordId(consumerId, eventId));
+        if (processed) {
+            idempotencyFilter.recordDuplicates(1);
+        }
+        return processed;
     }
 
     @Transactional
@@ -26,5 +34,6 @@ public class IdempotencyService {
                 .id(new IdempotencyRecordId(consumerId, eventId))
                 .processedAt(LocalDateTime.now())
                 .build());
+        idempotencyFilter.put(consumerId, eventId);
     }
 }
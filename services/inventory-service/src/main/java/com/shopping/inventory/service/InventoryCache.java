@@ -0,0 +1,152 @@
+package com.shopping.inventory.service;
+
+import com.shopping.inventory.dto.InventoryResponse;
+import com.shopping.inventory.entity.Inventory;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keys of the inventory read caches, and their eviction. A stock change evicts exactly the entries of the
+ * rows it touched (product list, sku and variant), one {@code DEL} each, instead of sweeping whole caches.
+ *
+ * <p>Availability is cached once per variant as its {@link InventoryResponse}, which answers a check for
+ * any quantity. Lookups of many entries, as for a whole cart, go to Redis as a single {@code MGET}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryCache {
+
+    public static final String BY_PRODUCT = "inventoryByProduct";
+    public static final String BY_SKU = "inventoryBySku";
+    public static final String BY_VARIANT = "inventoryAvailability";
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * An entry of one of the inventory caches, for lookups spanning several caches.
+     */
+    public record Key(String cacheName, String key) {
+
+        public static Key sku(String sku) {
+            return new Key(BY_SKU, sku);
+        }
+
+        public static Key variant(UUID productId, UUID variantId) {
+            return new Key(BY_VARIANT, variantKey(productId, variantId));
+        }
+    }
+
+    public static String variantKey(UUID productId, UUID variantId) {
+        return productId + ":" + variantId;
+    }
+
+    public InventoryResponse getByVariant(UUID productId, UUID variantId, Supplier<InventoryResponse> loader) {
+        Cache cache = cache(BY_VARIANT);
+        String key = variantKey(productId, variantId);
+        InventoryResponse cached = cache.get(key, InventoryResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+        InventoryResponse loaded = loader.get();
+        cache.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Looks up all {@code keys} in one {@code MGET} when the caches live in Redis, and returns the entries found.
+     * Never throws: if Redis cannot be reached every key counts as a miss.
+     */
+    public Map<Key, InventoryResponse> getAll(Collection<Key> keys) {
+        List<Key> ordered = keys.stream().distinct().toList();
+        Map<Key, InventoryResponse> found = new HashMap<>();
+        if (ordered.isEmpty()) {
+            return found;
+        }
+        try {
+            if (!ordered.stream().allMatch(key -> cache(key.cacheName()) instanceof RedisCache)) {
+                for (Key key : ordered) {
+                    InventoryResponse cached = cache(key.cacheName()).get(key.key(), InventoryResponse.class);
+                    if (cached != null) {
+                        found.put(key, cached);
+                    }
+                }
+                return found;
+            }
+            byte[][] rawKeys = ordered.stream().map(this::rawKey).toArray(byte[][]::new);
+            List<byte[]> values = redisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+            for (int i = 0; values != null && i < ordered.size(); i++) {
+                if (values.get(i) != null && configuration(ordered.get(i)).getValueSerializationPair()
+                        .read(ByteBuffer.wrap(values.get(i))) instanceof InventoryResponse cached) {
+                    found.put(ordered.get(i), cached);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cached inventory lookup of {} keys failed, using the database: {}", ordered.size(),
+                    e.getMessage());
+        }
+        return found;
+    }
+
+    public void put(Key key, InventoryResponse response) {
+        try {
+            cache(key.cacheName()).put(key.key(), response);
+        } catch (RuntimeException e) {
+            log.warn("Caching inventory {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts the entries of {@code inventories}. Never throws: entries that cannot be evicted expire with the
+     * cache TTL.
+     */
+    public void evict(Collection<Inventory> inventories) {
+        try {
+            Cache byProduct = cache(BY_PRODUCT);
+            Cache bySku = cache(BY_SKU);
+            Cache byVariant = cache(BY_VARIANT);
+            for (Inventory inventory : inventories) {
+                byProduct.evict(inventory.getProductId());
+                bySku.evict(inventory.getSku());
+                byVariant.evict(variantKey(inventory.getProductId(), inventory.getVariantId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Evicting cached inventory of {} rows failed: {}", inventories.size(), e.getMessage());
+        }
+    }
+
+    // Same key layout as RedisCache uses for its own reads and writes.
+    private byte[] rawKey(Key key) {
+        RedisCacheConfiguration configuration = configuration(key);
+        String cacheKey = configuration.usePrefix()
+                ? configuration.getKeyPrefixFor(key.cacheName()) + key.key()
+                : key.key();
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+
+    private RedisCacheConfiguration configuration(Key key) {
+        return ((RedisCache) cache(key.cacheName())).getCacheConfiguration();
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+}
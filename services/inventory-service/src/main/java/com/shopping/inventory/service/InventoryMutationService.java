@@ -1,5 +1,6 @@
 package com.shopping.inventory.service;
 
+import com.shopping.inventory.entity.HotStockJournalEntry;
 import com.shopping.inventory.entity.Inventory;
 import com.shopping.inventory.entity.InventoryReservation;
 import com.shopping.inventory.entity.InventoryReservationItem;
@@ -10,45 +11,75 @@ import com.shopping.inventory.kafka.model.CancelInventoryReservationCommand;
 import com.shopping.inventory.kafka.model.CommitInventoryCommand;
 import com.shopping.inventory.kafka.model.ReserveInventoryCommand;
 import com.shopping.inventory.kafka.model.ReserveInventoryItemCommand;
+import com.shopping.inventory.repository.HotStockJournalRepository;
 import com.shopping.inventory.repository.InventoryRepository;
 import com.shopping.inventory.repository.InventoryReservationRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryMutationService {
 
-    private static final int MAX_OPTIMISTIC_RETRIES = 5;
-
     private final InventoryRepository inventoryRepository;
     private final InventoryReservationRepository reservationRepository;
+    private final HotStockJournalRepository hotStockJournalRepository;
+    private final HotStockLedger hotStockLedger;
+    private final InventoryCache inventoryCache;
 
-    @CacheEvict(cacheNames = {"inventoryByProduct", "inventoryBySku", "inventoryAvailability"}, allEntries = true)
     @Transactional
     public InventoryReservation reserve(ReserveInventoryCommand command, int ttlMinutes) {
         if (command.getOrderId() == null || command.getItems() == null || command.getItems().isEmpty()) {
             throw new InvalidCommandException("ReserveInventoryCommand requires orderId and at least one item");
         }
 
+        List<ReserveInventoryItemCommand> lines = command.getItems();
+        for (ReserveInventoryItemCommand line : lines) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new InvalidCommandException("Reservation quantity must be > 0");
+            }
+        }
+        List<Inventory> inventories = resolveInventories(lines);
+
+        Map<UUID, Integer> rowQuantities = new LinkedHashMap<>();
+        Map<Inventory, Integer> hotQuantities = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Inventory inventory = inventories.get(i);
+            if (hotStockLedger.isHot(inventory.getId())) {
+                hotQuantities.merge(inventory, lines.get(i).getQuantity(), Integer::sum);
+            } else {
+                rowQuantities.merge(inventory.getId(), lines.get(i).getQuantity(), Integer::sum);
+            }
+        }
+        reserveStock(rowQuantities, inventories);
+        hotQuantities.forEach(this::reserveHotStock);
+
         InventoryReservation reservation = InventoryReservation.builder()
                 .orderId(command.getOrderId())
                 .status(ReservationStatus.ACTIVE)
                 .expiresAt(LocalDateTime.now().plusMinutes(ttlMinutes))
                 .build();
-
-        for (ReserveInventoryItemCommand commandItem : command.getItems()) {
-            Inventory inventory = reserveWithOptimisticRetry(resolveInventory(commandItem), commandItem.getQuantity());
+        for (int i = 0; i < lines.size(); i++) {
+            Inventory inventory = inventories.get(i);
             InventoryReservationItem item = InventoryReservationItem.builder()
                     .reservation(reservation)
-                    .inventory(inventory)
-                    .quantity(commandItem.getQuantity())
+                    .inventory(hotStockLedger.isHot(inventory.getId())
+                            ? inventoryRepository.getReferenceById(inventory.getId())
+                            : inventory)
+                    .quantity(lines.get(i).getQuantity())
                     .build();
             reservation.getItems().add(item);
         }
@@ -56,120 +87,209 @@ public class InventoryMutationService {
         return reservationRepository.save(reservation);
     }
 
-    @CacheEvict(cacheNames = {"inventoryByProduct", "inventoryBySku", "inventoryAvailability"}, allEntries = true)
     @Transactional
     public InventoryReservation commit(CommitInventoryCommand command) {
         InventoryReservation reservation = findActiveReservation(command.getOrderId(), command.getReservationId());
 
+        Map<UUID, Integer> rowQuantities = new LinkedHashMap<>();
         for (InventoryReservationItem item : reservation.getItems()) {
-            commitWithOptimisticRetry(item.getInventory().getId(), item.getQuantity());
+            UUID inventoryId = item.getInventory().getId();
+            if (hotStockLedger.isHot(inventoryId)) {
+                journal(inventoryId, -item.getQuantity(), -item.getQuantity());
+            } else {
+                rowQuantities.merge(inventoryId, item.getQuantity(), Integer::sum);
+            }
         }
+        commitStock(rowQuantities);
 
         reservation.setStatus(ReservationStatus.COMMITTED);
         return reservationRepository.save(reservation);
     }
 
-    @CacheEvict(cacheNames = {"inventoryByProduct", "inventoryBySku", "inventoryAvailability"}, allEntries = true)
     @Transactional
     public InventoryReservation cancel(CancelInventoryReservationCommand command) {
         InventoryReservation reservation = findActiveReservation(command.getOrderId(), command.getReservationId());
-        cancelReservationInternal(reservation, ReservationStatus.CANCELLED);
+        releaseReservations(List.of(reservation), ReservationStatus.CANCELLED);
         return reservation;
     }
 
-    @CacheEvict(cacheNames = {"inventoryByProduct", "inventoryBySku", "inventoryAvailability"}, allEntries = true)
     @Transactional
     public List<InventoryReservation> expireReservations(LocalDateTime now) {
         List<InventoryReservation> expired = reservationRepository.findByStatusAndExpiresAtBefore(ReservationStatus.ACTIVE, now);
-        for (InventoryReservation reservation : expired) {
-            cancelReservationInternal(reservation, ReservationStatus.EXPIRED);
-        }
+        releaseReservations(expired, ReservationStatus.EXPIRED);
         return expired;
     }
 
-    private Inventory resolveInventory(ReserveInventoryItemCommand item) {
-        if (item.getSku() != null && !item.getSku().isBlank()) {
-            return inventoryRepository.findBySku(item.getSku())
-                    .orElseThrow(() -> new InvalidCommandException("Inventory not found by sku: " + item.getSku()));
+    /**
+     * Resolves every line with one query, which also locks the rows in id order. Lines of hot SKUs resolve from
+     * {@link HotStockLedger} and their rows are neither read nor locked.
+     */
+    private List<Inventory> resolveInventories(List<ReserveInventoryItemCommand> lines) {
+        List<Optional<Inventory>> hot = new ArrayList<>(lines.size());
+        Set<String> skus = new HashSet<>();
+        Set<UUID> variantIds = new HashSet<>();
+        for (ReserveInventoryItemCommand line : lines) {
+            boolean bySku = line.getSku() != null && !line.getSku().isBlank();
+            if (!bySku && (line.getProductId() == null || line.getVariantId() == null)) {
+                throw new InvalidCommandException("Each reserve item needs sku or productId+variantId");
+            }
+            Optional<Inventory> hotInventory = hotStockLedger.findHot(line.getSku(), line.getProductId(),
+                    line.getVariantId());
+            hot.add(hotInventory);
+            if (hotInventory.isEmpty() && bySku) {
+                skus.add(line.getSku());
+            } else if (hotInventory.isEmpty()) {
+                variantIds.add(line.getVariantId());
+            }
         }
 
-        if (item.getProductId() == null || item.getVariantId() == null) {
-            throw new InvalidCommandException("Each reserve item needs sku or productId+variantId");
+        Map<String, Inventory> bySku = new HashMap<>();
+        Map<List<UUID>, Inventory> byVariant = new HashMap<>();
+        if (!skus.isEmpty() || !variantIds.isEmpty()) {
+            for (Inventory inventory : inventoryRepository.findAllForUpdate(skus, variantIds)) {
+                bySku.put(inventory.getSku(), inventory);
+                byVariant.put(List.of(inventory.getProductId(), inventory.getVariantId()), inventory);
+            }
         }
 
-        return inventoryRepository.findByProductIdAndVariantId(item.getProductId(), item.getVariantId())
-                .orElseThrow(() -> new InvalidCommandException(
-                        "Inventory not found by productId=" + item.getProductId() + ", variantId=" + item.getVariantId()));
+        List<Inventory> resolved = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            ReserveInventoryItemCommand line = lines.get(i);
+            if (hot.get(i).isPresent()) {
+                resolved.add(hot.get(i).get());
+            } else if (line.getSku() != null && !line.getSku().isBlank()) {
+                resolved.add(Optional.ofNullable(bySku.get(line.getSku())).orElseThrow(
+                        () -> new InvalidCommandException("Inventory not found by sku: " + line.getSku())));
+            } else {
+                resolved.add(Optional.ofNullable(byVariant.get(List.of(line.getProductId(), line.getVariantId())))
+                        .orElseThrow(() -> new InvalidCommandException("Inventory not found by productId="
+                                + line.getProductId() + ", variantId=" + line.getVariantId())));
+            }
+        }
+        return resolved;
     }
 
-    private Inventory reserveWithOptimisticRetry(Inventory inventory, Integer quantity) {
-        if (quantity == null || quantity <= 0) {
-            throw new InvalidCommandException("Reservation quantity must be > 0");
+    // The rows are already locked, so the check holds until commit; the statement's own guard backs it up.
+    private void reserveStock(Map<UUID, Integer> quantities, List<Inventory> inventories) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        for (Inventory inventory : inventories) {
+            Integer quantity = quantities.get(inventory.getId());
+            if (quantity != null && inventory.getTotalQuantity() - inventory.getReservedQuantity() < quantity) {
+                throw new InsufficientStockException("Insufficient stock for sku " + inventory.getSku());
+            }
+        }
+        if (inventoryRepository.reserveStock(quantities) != quantities.size()) {
+            throw new InsufficientStockException("Insufficient stock for skus "
+                    + inventories.stream().map(Inventory::getSku).distinct().toList());
         }
+        evictAfterCommit(inventories.stream().filter(inventory -> quantities.containsKey(inventory.getId())).toList());
+    }
 
-        for (int retry = 0; retry < MAX_OPTIMISTIC_RETRIES; retry++) {
-            try {
-                Inventory current = inventoryRepository.findById(inventory.getId())
-                        .orElseThrow(() -> new InvalidCommandException("Inventory not found: " + inventory.getId()));
+    private void reserveHotStock(Inventory inventory, int quantity) {
+        if (!hotStockLedger.tryReserve(inventory.getId(), quantity)) {
+            throw new InsufficientStockException("Insufficient stock for sku " + inventory.getSku());
+        }
+        afterRollback(() -> hotStockLedger.release(inventory.getId(), quantity));
+        journal(inventory.getId(), quantity, 0);
+    }
 
-                int available = current.getTotalQuantity() - current.getReservedQuantity();
-                if (available < quantity) {
-                    throw new InsufficientStockException("Insufficient stock for sku " + current.getSku());
-                }
+    private void commitStock(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Inventory> rows = inventoryRepository.findAllByIdForUpdate(quantities.keySet());
+        for (Inventory inventory : rows) {
+            int quantity = quantities.get(inventory.getId());
+            if (inventory.getReservedQuantity() < quantity || inventory.getTotalQuantity() < quantity) {
+                throw new InvalidCommandException("Quantity underflow for inventory " + inventory.getId());
+            }
+        }
+        if (inventoryRepository.commitStock(quantities) != quantities.size()) {
+            throw new InvalidCommandException("Quantity underflow for inventories " + quantities.keySet());
+        }
+        evictAfterCommit(rows);
+    }
 
-                current.setReservedQuantity(current.getReservedQuantity() + quantity);
-                return inventoryRepository.saveAndFlush(current);
-            } catch (ObjectOptimisticLockingFailureException ex) {
-                if (retry == MAX_OPTIMISTIC_RETRIES - 1) {
-                    throw new InvalidCommandException("Optimistic lock failed while reserving stock");
+    private void releaseReservations(List<InventoryReservation> reservations, ReservationStatus targetStatus) {
+        Map<UUID, Integer> rowQuantities = new LinkedHashMap<>();
+        for (InventoryReservation reservation : reservations) {
+            for (InventoryReservationItem item : reservation.getItems()) {
+                UUID inventoryId = item.getInventory().getId();
+                int quantity = item.getQuantity();
+                if (hotStockLedger.isHot(inventoryId)) {
+                    journal(inventoryId, -quantity, 0);
+                    afterCommit(() -> hotStockLedger.release(inventoryId, quantity));
+                } else {
+                    rowQuantities.merge(inventoryId, quantity, Integer::sum);
                 }
             }
         }
+        releaseStock(rowQuantities);
 
-        throw new InvalidCommandException("Unexpected reserve retry failure");
+        for (InventoryReservation reservation : reservations) {
+            reservation.setStatus(targetStatus);
+        }
+        reservationRepository.saveAll(reservations);
     }
 
-    private void commitWithOptimisticRetry(UUID inventoryId, Integer quantity) {
-        for (int retry = 0; retry < MAX_OPTIMISTIC_RETRIES; retry++) {
-            try {
-                Inventory current = inventoryRepository.findById(inventoryId)
-                        .orElseThrow(() -> new InvalidCommandException("Inventory not found: " + inventoryId));
-
-                if (current.getReservedQuantity() < quantity || current.getTotalQuantity() < quantity) {
-                    throw new InvalidCommandException("Quantity underflow for inventory " + inventoryId);
-                }
-
-                current.setReservedQuantity(current.getReservedQuantity() - quantity);
-                current.setTotalQuantity(current.getTotalQuantity() - quantity);
-                inventoryRepository.saveAndFlush(current);
-                return;
-            } catch (ObjectOptimisticLockingFailureException ex) {
-                if (retry == MAX_OPTIMISTIC_RETRIES - 1) {
-                    throw new InvalidCommandException("Optimistic lock failed while committing stock");
-                }
+    private void releaseStock(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Inventory> rows = inventoryRepository.findAllByIdForUpdate(quantities.keySet());
+        for (Inventory inventory : rows) {
+            if (inventory.getReservedQuantity() < quantities.get(inventory.getId())) {
+                throw new InvalidCommandException("Reserved quantity underflow for inventory " + inventory.getId());
             }
         }
+        if (inventoryRepository.releaseStock(quantities) != quantities.size()) {
+            throw new InvalidCommandException("Reserved quantity underflow for inventories " + quantities.keySet());
+        }
+        evictAfterCommit(rows);
     }
 
-    private void releaseWithOptimisticRetry(UUID inventoryId, Integer quantity) {
-        for (int retry = 0; retry < MAX_OPTIMISTIC_RETRIES; retry++) {
-            try {
-                Inventory current = inventoryRepository.findById(inventoryId)
-                        .orElseThrow(() -> new InvalidCommandException("Inventory not found: " + inventoryId));
+    // Hot inventory rows are not touched here; HotStockReconciler applies the journal to them.
+    private void journal(UUID inventoryId, int reservedDelta, int totalDelta) {
+        hotStockJournalRepository.save(HotStockJournalEntry.builder()
+                .inventoryId(inventoryId)
+                .reservedDelta(reservedDelta)
+                .totalDelta(totalDelta)
+                .build());
+    }
 
-                if (current.getReservedQuantity() < quantity) {
-                    throw new InvalidCommandException("Reserved quantity underflow for inventory " + inventoryId);
-                }
+    // Evicting after commit keeps a reader from caching the rows as they were before this transaction.
+    // Hot rows only change when HotStockReconciler drains the journal, which evicts them itself.
+    private void evictAfterCommit(List<Inventory> rows) {
+        afterCommit(() -> inventoryCache.evict(rows));
+    }
 
-                current.setReservedQuantity(current.getReservedQuantity() - quantity);
-                inventoryRepository.saveAndFlush(current);
-                return;
-            } catch (ObjectOptimisticLockingFailureException ex) {
-                if (retry == MAX_OPTIMISTIC_RETRIES - 1) {
-                    throw new InvalidCommandException("Optimistic lock failed while releasing stock");
-                }
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
+        });
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
     }
 
     private InventoryReservation findActiveReservation(UUID orderId, UUID reservationId) {
@@ -185,12 +305,4 @@ public class InventoryMutationService {
 
         throw new InvalidCommandException("Command requires orderId or reservationId");
     }
-
-    private void cancelReservationInternal(InventoryReservation reservation, ReservationStatus targetStatus) {
-        for (InventoryReservationItem item : reservation.getItems()) {
-            releaseWithOptimisticRetry(item.getInventory().getId(), item.getQuantity());
-        }
-        reservation.setStatus(targetStatus);
-        reservationRepository.save(reservation);
-    }
 }
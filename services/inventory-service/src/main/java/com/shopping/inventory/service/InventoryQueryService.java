@@ -1,12 +1,20 @@
 package com.shopping.inventory.service;
 
+import com.shopping.inventory.dto.BulkStockCheckResponse;
 import com.shopping.inventory.dto.InventoryResponse;
+import com.shopping.inventory.dto.StockCheckItemRequest;
+import com.shopping.inventory.dto.StockCheckItemResponse;
 import com.shopping.inventory.dto.StockCheckResponse;
 import com.shopping.inventory.entity.Inventory;
 import com.shopping.inventory.exception.InventoryNotFoundException;
 import com.shopping.inventory.repository.InventoryRepository;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -18,8 +26,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class InventoryQueryService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryCache inventoryCache;
 
-    @Cacheable(cacheNames = "inventoryByProduct", key = "#productId")
+    @Cacheable(cacheNames = InventoryCache.BY_PRODUCT, key = "#productId")
     public List<InventoryResponse> getInventoryByProduct(UUID productId) {
         return inventoryRepository.findByProductId(productId)
                 .stream()
@@ -27,22 +36,20 @@ public class InventoryQueryService {
                 .toList();
     }
 
-    @Cacheable(cacheNames = "inventoryBySku", key = "#sku")
+    @Cacheable(cacheNames = InventoryCache.BY_SKU, key = "#sku")
     public InventoryResponse getInventoryBySku(String sku) {
         Inventory inventory = inventoryRepository.findBySku(sku)
                 .orElseThrow(() -> new InventoryNotFoundException("Inventory not found for sku: " + sku));
         return toResponse(inventory);
     }
 
-    @Cacheable(cacheNames = "inventoryAvailability", key = "#productId.toString().concat('-').concat(#variantId.toString()).concat('-').concat(#quantity)")
     public StockCheckResponse checkAvailability(UUID productId, UUID variantId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByProductIdAndVariantId(productId, variantId)
-                .orElseThrow(() -> new InventoryNotFoundException(
-                        "Inventory not found for productId " + productId + " and variantId " + variantId));
+        InventoryResponse inventory = inventoryCache.getByVariant(productId, variantId, () -> toResponse(
+                inventoryRepository.findByProductIdAndVariantId(productId, variantId)
+                        .orElseThrow(() -> new InventoryNotFoundException(
+                                "Inventory not found for productId " + productId + " and variantId " + variantId))));
 
-        int available = inventory.getAvailableQuantity() == null
-                ? inventory.getTotalQuantity() - inventory.getReservedQuantity()
-                : inventory.getAvailableQuantity();
+        int available = inventory.availableQuantity();
         boolean canFulfill = available >= quantity;
 
         String message = canFulfill
@@ -59,6 +66,88 @@ public class InventoryQueryService {
         );
     }
 
+    /**
+     * Checks a whole cart with one cache lookup and, for the lines it misses, one query. Lines asking for the
+     * same inventory are checked against their combined quantity.
+     */
+    public BulkStockCheckResponse checkAvailability(List<StockCheckItemRequest> items) {
+        List<InventoryCache.Key> keys = items.stream().map(this::cacheKey).toList();
+        Map<InventoryCache.Key, InventoryResponse> found = new HashMap<>(inventoryCache.getAll(keys));
+
+        Set<InventoryCache.Key> missing = keys.stream()
+                .filter(key -> !found.containsKey(key))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            Set<String> skus = new HashSet<>();
+            Set<UUID> variantIds = new HashSet<>();
+            for (StockCheckItemRequest item : items) {
+                if (missing.contains(cacheKey(item))) {
+                    if (item.hasSku()) {
+                        skus.add(item.sku());
+                    } else {
+                        variantIds.add(item.variantId());
+                    }
+                }
+            }
+            for (Inventory inventory : inventoryRepository.findAllBySkuOrVariant(skus, variantIds)) {
+                InventoryResponse response = toResponse(inventory);
+                for (InventoryCache.Key key : List.of(InventoryCache.Key.sku(inventory.getSku()),
+                        InventoryCache.Key.variant(inventory.getProductId(), inventory.getVariantId()))) {
+                    if (missing.contains(key)) {
+                        found.put(key, response);
+                        inventoryCache.put(key, response);
+                    }
+                }
+            }
+        }
+
+        Map<UUID, Integer> requested = new HashMap<>();
+        for (StockCheckItemRequest item : items) {
+            InventoryResponse inventory = found.get(cacheKey(item));
+            if (inventory != null) {
+                requested.merge(inventory.inventoryId(), item.quantity(), Integer::sum);
+            }
+        }
+
+        List<StockCheckItemResponse> lines = items.stream()
+                .map(item -> toItemResponse(item, found.get(cacheKey(item)), requested))
+                .toList();
+        return new BulkStockCheckResponse(lines.stream().allMatch(StockCheckItemResponse::available), lines);
+    }
+
+    private InventoryCache.Key cacheKey(StockCheckItemRequest item) {
+        return item.hasSku()
+                ? InventoryCache.Key.sku(item.sku())
+                : InventoryCache.Key.variant(item.productId(), item.variantId());
+    }
+
+    private StockCheckItemResponse toItemResponse(
+            StockCheckItemRequest item,
+            InventoryResponse inventory,
+            Map<UUID, Integer> requested
+    ) {
+        if (inventory == null) {
+            return new StockCheckItemResponse(item.productId(), item.variantId(), item.sku(), item.quantity(), 0,
+                    false, "Inventory not found");
+        }
+
+        int total = requested.get(inventory.inventoryId());
+        boolean canFulfill = inventory.availableQuantity() >= total;
+        String message = canFulfill
+                ? "Stock available"
+                : "Insufficient stock. Requested=" + total + ", available=" + inventory.availableQuantity();
+
+        return new StockCheckItemResponse(
+                inventory.productId(),
+                inventory.variantId(),
+                inventory.sku(),
+                item.quantity(),
+                inventory.availableQuantity(),
+                canFulfill,
+                message
+        );
+    }
+
     private InventoryResponse toResponse(Inventory inventory) {
         int available = inventory.getAvailableQuantity() == null
                 ? inventory.getTotalQuantity() - inventory.getReservedQuantity()
@@ -0,0 +1,62 @@
+package com.shopping.inventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.inventory.dto.InventoryResponse;
+import com.shopping.inventory.service.InventoryCache;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+class RedisConfigTest {
+
+    private RedisCacheManager cacheManager;
+
+    private final InventoryResponse response = new InventoryResponse(UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID(), "SKU-123", 100, 40, 60, 10, false);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = (RedisCacheManager) new RedisConfig()
+                .cacheManager(mock(RedisConnectionFactory.class), new ObjectMapper().findAndRegisterModules());
+        cacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("SKU·변형별 재고 캐시 값은 InventoryResponse로 복원")
+    void inventoryCaches_ReadBackResponses() {
+        for (String name : List.of(InventoryCache.BY_SKU, InventoryCache.BY_VARIANT)) {
+            // when
+            Object restored = roundTrip(name, response);
+
+            // then
+            assertThat(restored).isEqualTo(response);
+        }
+    }
+
+    @Test
+    @DisplayName("상품별 재고 캐시 값은 InventoryResponse 목록으로 복원")
+    void byProductCache_ReadsBackResponseList() {
+        // when
+        Object restored = roundTrip(InventoryCache.BY_PRODUCT, List.of(response));
+
+        // then
+        assertThat(restored).isEqualTo(List.of(response));
+    }
+
+    private Object roundTrip(String cacheName, Object value) {
+        SerializationPair<Object> values = ((RedisCache) cacheManager.getCache(cacheName))
+                .getCacheConfiguration().getValueSerializationPair();
+        ByteBuffer written = values.write(value);
+        return values.read(written);
+    }
+}
@@ -4,10 +4,14 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.shopping.inventory.dto.BulkStockCheckResponse;
 import com.shopping.inventory.dto.InventoryResponse;
+import com.shopping.inventory.dto.StockCheckItemRequest;
+import com.shopping.inventory.dto.StockCheckItemResponse;
 import com.shopping.inventory.dto.StockCheckResponse;
 import com.shopping.inventory.service.InventoryQueryService;
 import java.util.List;
@@ -17,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(InventoryController.class)
@@ -64,4 +69,35 @@ class InventoryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.available").value(true));
     }
+
+    @Test
+    @DisplayName("장바구니 재고 일괄 체크 API")
+    void checkAvailabilityBulk_Api() throws Exception {
+        // given
+        UUID productId = UUID.randomUUID();
+        UUID variantId = UUID.randomUUID();
+        BulkStockCheckResponse response = new BulkStockCheckResponse(true, List.of(
+                new StockCheckItemResponse(productId, variantId, "SKU-001", 2, 90, true, "Stock available")));
+
+        when(inventoryQueryService.checkAvailability(
+                List.of(new StockCheckItemRequest(productId, variantId, null, 2)))).thenReturn(response);
+
+        // when & then
+        mockMvc.perform(post("/api/inventory/availability")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"productId\":\"" + productId + "\",\"variantId\":\"" + variantId
+                        + "\",\"quantity\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true))
+                .andExpect(jsonPath("$.items[0].sku").value("SKU-001"));
+    }
+
+    @Test
+    @DisplayName("장바구니 재고 일괄 체크 API - 식별자 없는 품목은 400")
+    void checkAvailabilityBulk_MissingIdentifier() throws Exception {
+        mockMvc.perform(post("/api/inventory/availability")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"quantity\":2}]}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,95 @@
+package com.shopping.inventory.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.inventory.entity.Inventory;
+import com.shopping.inventory.repository.HotStockJournalRepository;
+import com.shopping.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockLedgerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private HotStockJournalRepository journalRepository;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private HotStockLedger hotStockLedger;
+
+    @BeforeEach
+    void setUp() {
+        hotStockLedger = new HotStockLedger(redisTemplate, inventoryRepository, journalRepository,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hotStockLedger, "shards", 2);
+    }
+
+    @Test
+    @DisplayName("핫 모드에서 빠진 SKU의 카운터는 시작 시 삭제하고 남은 핫 SKU 카운터는 유지")
+    void activate_DeletesCountersOfUnlistedSkus() {
+        // given
+        Inventory hot = Inventory.builder().id(UUID.randomUUID()).sku("HOT-1").build();
+        UUID unlisted = UUID.randomUUID();
+        ReflectionTestUtils.setField(hotStockLedger, "enabled", true);
+        ReflectionTestUtils.setField(hotStockLedger, "skus", List.of("HOT-1"));
+        when(inventoryRepository.findBySku("HOT-1")).thenReturn(Optional.of(hot));
+        scanReturns("hot-stock:{" + hot.getId() + "}:0", "hot-stock:{" + unlisted + "}:0",
+                "hot-stock:{" + unlisted + "}:1");
+        when(redisTemplate.countExistingKeys(any())).thenReturn(2L);
+
+        // when
+        hotStockLedger.activate();
+
+        // then
+        verify(redisTemplate).delete(List.of("hot-stock:{" + unlisted + "}:0", "hot-stock:{" + unlisted + "}:1"));
+        verify(journalRepository, never()).findAvailableIncludingJournal(hot.getId());
+    }
+
+    @Test
+    @DisplayName("핫 모드를 끈 인스턴스도 시작 시 남은 카운터를 삭제")
+    void activate_Disabled_DeletesAllCounters() {
+        // given
+        UUID formerlyHot = UUID.randomUUID();
+        scanReturns("hot-stock:{" + formerlyHot + "}:0");
+
+        // when
+        hotStockLedger.activate();
+
+        // then
+        verify(redisTemplate).delete(List.of("hot-stock:{" + formerlyHot + "}:0"));
+    }
+
+    private void scanReturns(String... keys) {
+        Iterator<String> iterator = List.of(keys).iterator();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        doAnswer(invocation -> {
+            iterator.forEachRemaining(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+    }
+}
@@ -0,0 +1,98 @@
+package com.shopping.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.inventory.config.RedisConfig;
+import com.shopping.inventory.dto.InventoryResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InventoryCacheRedisTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private InventoryCache inventoryCache;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        RedisCacheManager cacheManager = (RedisCacheManager) new RedisConfig()
+                .cacheManager(connectionFactory, new ObjectMapper().findAndRegisterModules());
+        cacheManager.afterPropertiesSet();
+        inventoryCache = new InventoryCache(cacheManager, redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Redis에 캐시된 변형 재고를 다시 조회하면 로더 없이 응답")
+    void getByVariant_HitsRedis() {
+        // given
+        InventoryResponse response = response("SKU-1");
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        inventoryCache.getByVariant(response.productId(), response.variantId(), () -> {
+            loads.incrementAndGet();
+            return response;
+        });
+        InventoryResponse cached = inventoryCache.getByVariant(response.productId(), response.variantId(), () -> {
+            loads.incrementAndGet();
+            return response;
+        });
+
+        // then
+        assertThat(cached).isEqualTo(response);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("단건 조회가 캐시한 항목을 일괄 조회가 한 번의 MGET으로 읽음")
+    void getAll_ReadsEntriesOfSingleLookups() {
+        // given
+        InventoryResponse bySku = response("SKU-1");
+        InventoryResponse byVariant = response("SKU-2");
+        InventoryCache.Key skuKey = InventoryCache.Key.sku(bySku.sku());
+        InventoryCache.Key variantKey = InventoryCache.Key.variant(byVariant.productId(), byVariant.variantId());
+        inventoryCache.put(skuKey, bySku);
+        inventoryCache.getByVariant(byVariant.productId(), byVariant.variantId(), () -> byVariant);
+        InventoryCache.Key missing = InventoryCache.Key.sku("SKU-3");
+
+        // when
+        Map<InventoryCache.Key, InventoryResponse> found = inventoryCache.getAll(List.of(skuKey, variantKey, missing));
+
+        // then
+        assertThat(found).containsOnly(Map.entry(skuKey, bySku), Map.entry(variantKey, byVariant));
+    }
+
+    private InventoryResponse response(String sku) {
+        return new InventoryResponse(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), sku, 100, 40, 60, 10,
+                false);
+    }
+}
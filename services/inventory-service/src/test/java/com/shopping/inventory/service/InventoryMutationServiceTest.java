@@ -3,25 +3,33 @@ package com.shopping.inventory.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.shopping.inventory.entity.HotStockJournalEntry;
 import com.shopping.inventory.entity.Inventory;
 import com.shopping.inventory.entity.InventoryReservation;
+import com.shopping.inventory.entity.InventoryReservationItem;
 import com.shopping.inventory.enums.ReservationStatus;
 import com.shopping.inventory.exception.InsufficientStockException;
+import com.shopping.inventory.exception.InvalidCommandException;
+import com.shopping.inventory.kafka.model.CommitInventoryCommand;
 import com.shopping.inventory.kafka.model.ReserveInventoryCommand;
 import com.shopping.inventory.kafka.model.ReserveInventoryItemCommand;
+import com.shopping.inventory.repository.HotStockJournalRepository;
 import com.shopping.inventory.repository.InventoryRepository;
 import com.shopping.inventory.repository.InventoryReservationRepository;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -35,6 +43,15 @@ class InventoryMutationServiceTest {
     @Mock
     private InventoryReservationRepository reservationRepository;
 
+    @Mock
+    private HotStockJournalRepository hotStockJournalRepository;
+
+    @Mock
+    private HotStockLedger hotStockLedger;
+
+    @Mock
+    private InventoryCache inventoryCache;
+
     @InjectMocks
     private InventoryMutationService inventoryMutationService;
 
@@ -69,9 +86,8 @@ class InventoryMutationServiceTest {
         command.setOrderId(UUID.randomUUID());
         command.setItems(List.of(item));
 
-        when(inventoryRepository.findByProductIdAndVariantId(productId, variantId)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(inventoryRepository.findAllForUpdate(Set.of(), Set.of(variantId))).thenReturn(List.of(inventory));
+        when(inventoryRepository.reserveStock(Map.of(inventory.getId(), 10))).thenReturn(1);
         when(reservationRepository.save(any(InventoryReservation.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // when
@@ -80,8 +96,52 @@ class InventoryMutationServiceTest {
         // then
         assertThat(reservation.getOrderId()).isEqualTo(command.getOrderId());
         assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
-        assertThat(inventory.getReservedQuantity()).isEqualTo(10);
-        verify(inventoryRepository, atLeastOnce()).saveAndFlush(any());
+        assertThat(reservation.getItems()).singleElement()
+                .satisfies(reserved -> assertThat(reserved.getInventory()).isSameAs(inventory));
+        verify(inventoryRepository).reserveStock(Map.of(inventory.getId(), 10));
+        verify(inventoryCache).evict(List.of(inventory));
+    }
+
+    @Test
+    @DisplayName("여러 품목 재고 예약 - 한 번의 조회로 잠그고 한 번에 갱신")
+    void reserve_MultipleItemsInOneBatch() {
+        // given
+        Inventory other = Inventory.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .variantId(UUID.randomUUID())
+                .sku("SKU-456")
+                .totalQuantity(10)
+                .reservedQuantity(0)
+                .build();
+
+        ReserveInventoryItemCommand bySku = new ReserveInventoryItemCommand();
+        bySku.setSku("SKU-456");
+        bySku.setQuantity(1);
+        ReserveInventoryItemCommand byVariant = new ReserveInventoryItemCommand();
+        byVariant.setProductId(productId);
+        byVariant.setVariantId(variantId);
+        byVariant.setQuantity(3);
+        ReserveInventoryItemCommand sameSkuAgain = new ReserveInventoryItemCommand();
+        sameSkuAgain.setSku("SKU-456");
+        sameSkuAgain.setQuantity(2);
+
+        ReserveInventoryCommand command = new ReserveInventoryCommand();
+        command.setOrderId(UUID.randomUUID());
+        command.setItems(List.of(bySku, byVariant, sameSkuAgain));
+
+        when(inventoryRepository.findAllForUpdate(Set.of("SKU-456"), Set.of(variantId)))
+                .thenReturn(List.of(inventory, other));
+        when(inventoryRepository.reserveStock(Map.of(other.getId(), 3, inventory.getId(), 3))).thenReturn(2);
+        when(reservationRepository.save(any(InventoryReservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // when
+        InventoryReservation reservation = inventoryMutationService.reserve(command, 10);
+
+        // then
+        assertThat(reservation.getItems()).extracting(InventoryReservationItem::getInventory)
+                .containsExactly(other, inventory, other);
+        verify(inventoryRepository).reserveStock(Map.of(other.getId(), 3, inventory.getId(), 3));
     }
 
     @Test
@@ -97,11 +157,94 @@ class InventoryMutationServiceTest {
         command.setOrderId(UUID.randomUUID());
         command.setItems(List.of(item));
 
-        when(inventoryRepository.findByProductIdAndVariantId(productId, variantId)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findAllForUpdate(Set.of(), Set.of(variantId))).thenReturn(List.of(inventory));
+
+        // when & then
+        assertThatThrownBy(() -> inventoryMutationService.reserve(command, 10))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("SKU-123");
+        verify(inventoryRepository, never()).reserveStock(any());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("핫 SKU 재고 예약 - Redis 카운터에서 차감하고 저널에 기록")
+    void reserve_HotSku() {
+        // given
+        ReserveInventoryItemCommand item = new ReserveInventoryItemCommand();
+        item.setSku("SKU-123");
+        item.setQuantity(2);
+
+        ReserveInventoryCommand command = new ReserveInventoryCommand();
+        command.setOrderId(UUID.randomUUID());
+        command.setItems(List.of(item));
+
+        when(hotStockLedger.findHot("SKU-123", null, null)).thenReturn(Optional.of(inventory));
+        when(hotStockLedger.isHot(inventory.getId())).thenReturn(true);
+        when(hotStockLedger.tryReserve(inventory.getId(), 2)).thenReturn(true);
+        when(reservationRepository.save(any(InventoryReservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // when
+        inventoryMutationService.reserve(command, 10);
+
+        // then
+        ArgumentCaptor<HotStockJournalEntry> entry = ArgumentCaptor.forClass(HotStockJournalEntry.class);
+        verify(hotStockJournalRepository).save(entry.capture());
+        assertThat(entry.getValue().getInventoryId()).isEqualTo(inventory.getId());
+        assertThat(entry.getValue().getReservedDelta()).isEqualTo(2);
+        assertThat(entry.getValue().getTotalDelta()).isZero();
+        verify(inventoryRepository, never()).findAllForUpdate(any(), any());
+        verify(inventoryRepository, never()).reserveStock(any());
+    }
+
+    @Test
+    @DisplayName("핫 SKU 재고 예약 실패 - 카운터 부족")
+    void reserve_HotSkuInsufficient() {
+        // given
+        ReserveInventoryItemCommand item = new ReserveInventoryItemCommand();
+        item.setSku("SKU-123");
+        item.setQuantity(2);
+
+        ReserveInventoryCommand command = new ReserveInventoryCommand();
+        command.setOrderId(UUID.randomUUID());
+        command.setItems(List.of(item));
+
+        when(hotStockLedger.findHot("SKU-123", null, null)).thenReturn(Optional.of(inventory));
+        when(hotStockLedger.isHot(inventory.getId())).thenReturn(true);
+        when(hotStockLedger.tryReserve(inventory.getId(), 2)).thenReturn(false);
 
         // when & then
         assertThatThrownBy(() -> inventoryMutationService.reserve(command, 10))
                 .isInstanceOf(InsufficientStockException.class);
+        verify(hotStockJournalRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("재고 확정 실패 - 예약 수량 부족")
+    void commit_ReservedQuantityUnderflow() {
+        // given
+        InventoryReservation reservation = InventoryReservation.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .status(ReservationStatus.ACTIVE)
+                .build();
+        reservation.getItems().add(InventoryReservationItem.builder()
+                .reservation(reservation)
+                .inventory(inventory)
+                .quantity(5)
+                .build());
+
+        CommitInventoryCommand command = new CommitInventoryCommand();
+        command.setReservationId(reservation.getId());
+
+        when(reservationRepository.findByIdAndStatus(reservation.getId(), ReservationStatus.ACTIVE))
+                .thenReturn(Optional.of(reservation));
+        when(inventoryRepository.findAllByIdForUpdate(Set.of(inventory.getId()))).thenReturn(List.of(inventory));
+
+        // when & then
+        assertThatThrownBy(() -> inventoryMutationService.commit(command))
+                .isInstanceOf(InvalidCommandException.class);
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+        verify(inventoryRepository, never()).commitStock(any());
     }
 }
@@ -0,0 +1,140 @@
+package com.shopping.inventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.inventory.dto.BulkStockCheckResponse;
+import com.shopping.inventory.dto.StockCheckItemRequest;
+import com.shopping.inventory.dto.StockCheckItemResponse;
+import com.shopping.inventory.dto.StockCheckResponse;
+import com.shopping.inventory.entity.Inventory;
+import com.shopping.inventory.repository.InventoryRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryQueryServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private InventoryCache inventoryCache;
+    private InventoryQueryService inventoryQueryService;
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventoryCache = new InventoryCache(new ConcurrentMapCacheManager(
+                InventoryCache.BY_PRODUCT, InventoryCache.BY_SKU, InventoryCache.BY_VARIANT), null);
+        inventoryQueryService = new InventoryQueryService(inventoryRepository, inventoryCache);
+        inventory = Inventory.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .variantId(UUID.randomUUID())
+                .sku("SKU-123")
+                .totalQuantity(100)
+                .reservedQuantity(40)
+                .build();
+    }
+
+    @Test
+    @DisplayName("재고 가용성 체크 - 변형별 캐시 하나로 모든 수량에 응답")
+    void checkAvailability_OneEntryPerVariant() {
+        // given
+        when(inventoryRepository.findByProductIdAndVariantId(inventory.getProductId(), inventory.getVariantId()))
+                .thenReturn(Optional.of(inventory));
+
+        // when
+        StockCheckResponse small = inventoryQueryService.checkAvailability(
+                inventory.getProductId(), inventory.getVariantId(), 10);
+        StockCheckResponse large = inventoryQueryService.checkAvailability(
+                inventory.getProductId(), inventory.getVariantId(), 80);
+
+        // then
+        assertThat(small.available()).isTrue();
+        assertThat(large.available()).isFalse();
+        assertThat(large.availableQuantity()).isEqualTo(60);
+        verify(inventoryRepository, times(1))
+                .findByProductIdAndVariantId(inventory.getProductId(), inventory.getVariantId());
+    }
+
+    @Test
+    @DisplayName("재고 변경 시 해당 변형의 캐시만 제거")
+    void evict_OnlyAffectedVariant() {
+        // given
+        Inventory other = Inventory.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .variantId(UUID.randomUUID())
+                .sku("SKU-456")
+                .totalQuantity(10)
+                .reservedQuantity(0)
+                .build();
+        when(inventoryRepository.findByProductIdAndVariantId(inventory.getProductId(), inventory.getVariantId()))
+                .thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findByProductIdAndVariantId(other.getProductId(), other.getVariantId()))
+                .thenReturn(Optional.of(other));
+        inventoryQueryService.checkAvailability(inventory.getProductId(), inventory.getVariantId(), 1);
+        inventoryQueryService.checkAvailability(other.getProductId(), other.getVariantId(), 1);
+
+        // when
+        inventoryCache.evict(List.of(inventory));
+        inventoryQueryService.checkAvailability(inventory.getProductId(), inventory.getVariantId(), 1);
+        inventoryQueryService.checkAvailability(other.getProductId(), other.getVariantId(), 1);
+
+        // then
+        verify(inventoryRepository, times(2))
+                .findByProductIdAndVariantId(inventory.getProductId(), inventory.getVariantId());
+        verify(inventoryRepository, times(1))
+                .findByProductIdAndVariantId(other.getProductId(), other.getVariantId());
+    }
+
+    @Test
+    @DisplayName("장바구니 재고 일괄 체크 - 한 번의 조회로 품목별·전체 가용성 응답")
+    void checkAvailability_WholeCart() {
+        // given
+        Inventory other = Inventory.builder()
+                .id(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .variantId(UUID.randomUUID())
+                .sku("SKU-456")
+                .totalQuantity(10)
+                .reservedQuantity(0)
+                .build();
+        List<StockCheckItemRequest> items = List.of(
+                new StockCheckItemRequest(inventory.getProductId(), inventory.getVariantId(), null, 30),
+                new StockCheckItemRequest(null, null, "SKU-456", 6),
+                new StockCheckItemRequest(null, null, "SKU-456", 6),
+                new StockCheckItemRequest(null, null, "SKU-404", 1));
+
+        when(inventoryRepository.findAllBySkuOrVariant(Set.of("SKU-456", "SKU-404"), Set.of(inventory.getVariantId())))
+                .thenReturn(List.of(inventory, other));
+
+        // when
+        BulkStockCheckResponse response = inventoryQueryService.checkAvailability(items);
+
+        // then
+        assertThat(response.available()).isFalse();
+        assertThat(response.items()).extracting(StockCheckItemResponse::available)
+                .containsExactly(true, false, false, false);
+        assertThat(response.items().get(1).message()).contains("Requested=12");
+        assertThat(response.items().get(3).message()).isEqualTo("Inventory not found");
+
+        // cached lines are not queried again
+        inventoryQueryService.checkAvailability(items.subList(0, 2));
+        verify(inventoryRepository, times(1)).findAllBySkuOrVariant(any(), any());
+    }
+}
@@ -0,0 +1,145 @@
+package com.shopping.inventory.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.inventory.entity.OutboxEvent;
+import com.shopping.inventory.repository.OutboxEventRepository;
+import io.micrometer.tracing.Tracer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxPublisher outboxPublisher;
+
+    @BeforeEach
+    void setUp() {
+        outboxPublisher = new OutboxPublisher(outboxEventRepository, kafkaTemplate, Tracer.NOOP, transactionTemplate);
+        ReflectionTestUtils.setField(outboxPublisher, "eventsTopic", "inventory.events");
+        ReflectionTestUtils.setField(outboxPublisher, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxPublisher, "ackTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxPublisher, "maxBatchesPerRun", 10);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("가득 찬 페이지가 확인되는 동안 연속 발행 후 일괄 완료 처리")
+    void publishPendingEvents_PublishesUntilPartialPage() {
+        // given
+        OutboxEvent first = event(UUID.randomUUID().toString());
+        OutboxEvent second = event(UUID.randomUUID().toString());
+        OutboxEvent third = event(UUID.randomUUID().toString());
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+        when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(kafkaTemplate, times(3)).send(eq("inventory.events"), anyString(), anyString());
+        verify(outboxEventRepository).markPublished(eq(List.of(first.getId(), second.getId())), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(third.getId())), any());
+    }
+
+    @Test
+    @DisplayName("브로커 미확인 이벤트와 같은 집계의 후속 이벤트는 완료 처리하지 않음")
+    void publishPendingEvents_SkipsUnacknowledgedAggregate() {
+        // given
+        String aggregateId = UUID.randomUUID().toString();
+        OutboxEvent failed = event(aggregateId);
+        OutboxEvent sameAggregate = event(aggregateId);
+        OutboxEvent otherAggregate = event(UUID.randomUUID().toString());
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(acked())
+                .thenReturn(acked());
+        when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
+                .thenReturn(List.of(failed, sameAggregate, otherAggregate));
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(outboxEventRepository).markPublished(eq(List.of(otherAggregate.getId())), any());
+        verify(outboxEventRepository, times(1)).findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("미발행 이벤트 없음")
+    void publishPendingEvents_NoEvents() {
+        // given
+        when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("한 번에 발행하는 페이지 수는 상한까지만")
+    void publishPendingEvents_StopsAtMaxBatchesPerRun() {
+        // given
+        ReflectionTestUtils.setField(outboxPublisher, "maxBatchesPerRun", 2);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+        when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
+                .thenReturn(List.of(event(UUID.randomUUID().toString()), event(UUID.randomUUID().toString())))
+                .thenReturn(List.of(event(UUID.randomUUID().toString()), event(UUID.randomUUID().toString())));
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(outboxEventRepository, times(2)).findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class));
+        verify(kafkaTemplate, times(4)).send(eq("inventory.events"), anyString(), anyString());
+    }
+
+    private CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private OutboxEvent event(String aggregateId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateId(aggregateId);
+        event.setEventType("InventoryReserved");
+        event.setPayload("{}");
+        return event;
+    }
+}
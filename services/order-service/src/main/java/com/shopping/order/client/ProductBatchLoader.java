@@ -0,0 +1,170 @@
+package com.shopping.order.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces product lookups into {@code POST /api/products/batch} calls. Ids requested by concurrent callers
+ * within {@code window-ms} of each other, or until {@code max-batch-size} ids are waiting, share one call, and
+ * an id asked for by several of them is requested once. Large batches are split into chunks that are sent in
+ * parallel on virtual threads, with at most {@code max-concurrent-calls} in flight at a time.
+ *
+ * <p>Lookups never throw: products that are unknown, or that could not be fetched in time, are simply missing
+ * from the returned map and callers fall back as they did for a failed single lookup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductBatchLoader {
+
+    private final ProductServiceClient productServiceClient;
+
+    @Value("${app.services.product-service.batch.window-ms:5}")
+    private long windowMs;
+
+    @Value("${app.services.product-service.batch.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${app.services.product-service.batch.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Value("${app.services.product-service.batch.max-concurrent-calls:8}")
+    private int maxConcurrentCalls;
+
+    private final Object lock = new Object();
+    private Map<UUID, CompletableFuture<ProductDto>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService callExecutor;
+    private Semaphore callPermits;
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        callExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-batch-", 0).factory());
+        callPermits = new Semaphore(maxConcurrentCalls);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        callExecutor.shutdownNow();
+    }
+
+    public Map<UUID, ProductDto> getProducts(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, CompletableFuture<ProductDto>> requested = new LinkedHashMap<>();
+        synchronized (lock) {
+            for (UUID productId : productIds) {
+                requested.computeIfAbsent(productId,
+                        id -> pending.computeIfAbsent(id, key -> new CompletableFuture<>()));
+            }
+            if (pending.size() >= maxBatchSize) {
+                scheduler.execute(takePending());
+            } else if (scheduledFlush == null && !pending.isEmpty()) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        await(requested.values());
+        Map<UUID, ProductDto> products = new LinkedHashMap<>();
+        requested.forEach((productId, future) -> {
+            ProductDto product = future.isCompletedExceptionally() ? null : future.getNow(null);
+            if (product != null) {
+                products.put(productId, product);
+            }
+        });
+        return products;
+    }
+
+    private void flush() {
+        Runnable batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        batch.run();
+    }
+
+    // Must be called holding the lock; the returned call runs outside it.
+    private Runnable takePending() {
+        Map<UUID, CompletableFuture<ProductDto>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return () -> fetch(batch);
+    }
+
+    private void fetch(Map<UUID, CompletableFuture<ProductDto>> batch) {
+        List<UUID> ids = new ArrayList<>(batch.keySet());
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<UUID> chunk = List.copyOf(ids.subList(from, Math.min(from + maxBatchSize, ids.size())));
+            callExecutor.execute(() -> fetchChunk(chunk, batch));
+        }
+    }
+
+    private void fetchChunk(List<UUID> chunk, Map<UUID, CompletableFuture<ProductDto>> batch) {
+        try {
+            if (!callPermits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No free product-service call slot within " + timeoutMs + " ms");
+            }
+            try {
+                for (ProductDto product : productServiceClient.getProducts(chunk)) {
+                    CompletableFuture<ProductDto> future = batch.get(product.getId());
+                    if (future != null) {
+                        future.complete(product);
+                    }
+                }
+                chunk.forEach(id -> batch.get(id).complete(null));
+            } finally {
+                callPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            chunk.forEach(id -> batch.get(id).completeExceptionally(e));
+        } catch (RuntimeException e) {
+            log.warn("Batch lookup of {} products failed: {}", chunk.size(), e.getMessage());
+            chunk.forEach(id -> batch.get(id).completeExceptionally(e));
+        }
+    }
+
+    private void await(Collection<CompletableFuture<ProductDto>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // per-product failures are reported as missing entries
+        } catch (TimeoutException e) {
+            log.warn("Product lookup timed out after {} ms", timeoutMs);
+        }
+    }
+}
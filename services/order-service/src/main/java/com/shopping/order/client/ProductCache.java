@@ -0,0 +1,190 @@
+package com.shopping.order.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of product snapshots in front of {@link ProductBatchLoader}. It holds at most
+ * {@code max-size} entries and evicts the least recently used one first.
+ *
+ * <p>An entry is served for {@code ttl} after it was loaded and refreshed after that. If the refresh fails it
+ * keeps being served until {@code max-stale}, so a product-service outage degrades to slightly old prices
+ * instead of zero totals. Every instance also listens to {@code product.events} in its own consumer group and
+ * drops the entry for any product that changed. The group is named after {@code spring.application.instance-id}
+ * so a restarted instance rejoins its group instead of leaving an orphaned one behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCache {
+
+    private final ProductBatchLoader productBatchLoader;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.services.product-service.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.services.product-service.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${app.services.product-service.cache.max-stale:1h}")
+    private Duration maxStale;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private Map<UUID, Entry> entries;
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter staleCounter;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+    private Counter invalidatedEvictions;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                if (size() > maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        hitCounter = requests("hit", "Product lookups served from the local cache");
+        missCounter = requests("miss", "Product lookups that went to product-service");
+        staleCounter = requests("stale", "Product lookups served from an expired entry after a failed refresh");
+        sizeEvictions = evictions("size");
+        expiredEvictions = evictions("expired");
+        invalidatedEvictions = evictions("invalidated");
+        Gauge.builder("product.cache.size", this, ProductCache::size)
+                .description("Product snapshots held in the local cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the products that could be resolved, from the cache where possible and with one batched call
+     * for the rest. Products that are unknown or unavailable are missing from the result.
+     */
+    public Map<UUID, ProductDto> getProducts(Collection<UUID> productIds) {
+        Map<UUID, ProductDto> products = new HashMap<>();
+        Map<UUID, Entry> expired = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (entries) {
+            for (UUID productId : new LinkedHashSet<>(productIds)) {
+                Entry entry = entries.get(productId);
+                if (entry != null && entry.age(now) < ttl.toNanos()) {
+                    products.put(productId, entry.product());
+                    continue;
+                }
+                misses.add(productId);
+                if (entry != null && entry.age(now) < maxStale.toNanos()) {
+                    expired.put(productId, entry);
+                } else if (entry != null) {
+                    entries.remove(productId);
+                    expiredEvictions.increment();
+                }
+            }
+        }
+        hitCounter.increment(products.size());
+        if (misses.isEmpty()) {
+            return products;
+        }
+        missCounter.increment(misses.size());
+
+        long version = invalidations.get();
+        Map<UUID, ProductDto> loaded = productBatchLoader.getProducts(misses);
+        synchronized (entries) {
+            // A product event that arrived while loading may have made the response out of date already.
+            if (invalidations.get() == version) {
+                loaded.forEach((productId, product) -> entries.put(productId, new Entry(product, now)));
+            }
+        }
+
+        for (UUID productId : misses) {
+            ProductDto product = loaded.get(productId);
+            if (product == null && expired.containsKey(productId)) {
+                product = expired.get(productId).product();
+                staleCounter.increment();
+            }
+            if (product != null) {
+                products.put(productId, product);
+            }
+        }
+        return products;
+    }
+
+    public void invalidate(UUID productId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            if (entries.remove(productId) != null) {
+                invalidatedEvictions.increment();
+            }
+        }
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.product-events}",
+            groupId = "order-product-cache-${spring.application.instance-id:${HOSTNAME:local}}",
+            properties = "auto.offset.reset=latest")
+    public void onProductEvent(String payload) {
+        try {
+            JsonNode productId = objectMapper.readTree(payload).path("productId");
+            if (productId.isTextual()) {
+                invalidate(UUID.fromString(productId.asText()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable product event: {}", e.getMessage());
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Counter requests(String result, String description) {
+        return Counter.builder("product.cache.requests")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter evictions(String cause) {
+        return Counter.builder("product.cache.evictions")
+                .description("Product snapshots removed from the local cache")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record Entry(ProductDto product, long loadedAtNanos) {
+
+        long age(long nowNanos) {
+            return nowNanos - loadedAtNanos;
+        }
+    }
+}
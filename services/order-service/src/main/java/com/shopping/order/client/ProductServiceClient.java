@@ -1,13 +1,20 @@
 package com.shopping.order.client;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(name = "product-service", url = "${app.services.product-service.url}")
 public interface ProductServiceClient {
 
     @GetMapping("/api/products/{productId}")
     ProductDto getProduct(@PathVariable("productId") UUID productId);
+
+    @PostMapping("/api/products/batch")
+    List<ProductDto> getProducts(@RequestBody Collection<UUID> productIds);
 }
@@ -2,25 +2,35 @@ package com.shopping.order.controller;
 
 import com.shopping.order.dto.ApproveOrderRequest;
 import com.shopping.order.dto.CancelOrderRequest;
+import com.shopping.order.dto.OrderHistoryPage;
 import com.shopping.order.dto.OrderResponse;
 import com.shopping.order.dto.OrderStatusResponse;
+import com.shopping.order.dto.OrderSummaryResponse;
 import com.shopping.order.dto.RefundRequest;
+import com.shopping.order.enums.OrderStatus;
 import com.shopping.order.service.OrderService;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
 
     @GetMapping("/{id}")
@@ -28,9 +38,37 @@ public class OrderController {
         return orderService.getOrder(id);
     }
 
+    /**
+     * Current status, or with {@code seen} and {@code waitMs} a long-poll that answers once the status moves
+     * away from {@code seen}.
+     */
+    @GetMapping("/{id}/status")
+    public CompletableFuture<OrderStatusResponse> getOrderStatus(
+            @PathVariable("id") UUID id,
+            @RequestParam(required = false) OrderStatus seen,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return orderService.awaitOrderStatus(id, seen, waitMs);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(@PathVariable("id") UUID id) {
+        return orderService.streamProgress(id);
+    }
+
     @GetMapping("/user/{userId}")
-    public List<OrderResponse> getOrdersByUser(@PathVariable String userId) {
-        return orderService.getOrdersByUser(userId);
+    public ResponseEntity<List<OrderResponse>> getOrdersByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return page(orderService.getOrdersByUser(userId, cursor, size));
+    }
+
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<List<OrderSummaryResponse>> getOrderSummariesByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return page(orderService.getOrderSummariesByUser(userId, cursor, size));
     }
 
     @PostMapping("/{id}/approve")
@@ -53,4 +91,13 @@ public class OrderController {
             @RequestBody(required = false) RefundRequest request) {
         return orderService.refund(id, request == null ? new RefundRequest() : request);
     }
+
+    // The body stays a plain list; the cursor for the next page travels in a header.
+    private <T> ResponseEntity<List<T>> page(OrderHistoryPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.orders());
+    }
 }
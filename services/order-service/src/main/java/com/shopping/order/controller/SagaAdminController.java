@@ -0,0 +1,25 @@
+package com.shopping.order.controller;
+
+import com.shopping.order.dto.DeadLetterReplayResponse;
+import com.shopping.order.saga.SagaDeadLetterReplayer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operator endpoints for the saga consumer. Served under {@code /internal}, which the gateway does not route.
+ */
+@RestController
+@RequestMapping("/internal/saga")
+@RequiredArgsConstructor
+public class SagaAdminController {
+
+    private final SagaDeadLetterReplayer sagaDeadLetterReplayer;
+
+    @PostMapping("/dead-letters/replay")
+    public DeadLetterReplayResponse replayDeadLetters(@RequestParam(defaultValue = "100") int max) {
+        return new DeadLetterReplayResponse(sagaDeadLetterReplayer.replay(max));
+    }
+}
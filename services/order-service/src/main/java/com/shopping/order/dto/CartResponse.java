@@ -32,5 +32,6 @@ public class CartResponse {
         private String productName;
         private Integer quantity;
         private Integer unitPrice;
+        private Integer lineTotal;
     }
 }
@@ -0,0 +1,4 @@
+package com.shopping.order.dto;
+
+public record DeadLetterReplayResponse(int replayed) {
+}
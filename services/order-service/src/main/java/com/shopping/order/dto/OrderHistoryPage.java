@@ -0,0 +1,9 @@
+package com.shopping.order.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first. {@code nextCursor} is {@code null} on the last page.
+ */
+public record OrderHistoryPage<T>(List<T> orders, String nextCursor) {
+}
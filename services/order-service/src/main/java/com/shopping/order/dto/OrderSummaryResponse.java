@@ -0,0 +1,18 @@
+package com.shopping.order.dto;
+
+import com.shopping.order.enums.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class OrderSummaryResponse {
+    private UUID id;
+    private OrderStatus status;
+    private Integer totalAmount;
+    private String currency;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.shopping.order.dto;
+
+import com.shopping.order.enums.OrderSagaStatus;
+import com.shopping.order.enums.OrderStatus;
+import com.shopping.order.enums.SagaProgressStep;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One saga transition of an order as pushed to {@code /api/orders/{id}/events}, with the order's status right
+ * after it.
+ */
+public record SagaProgressEvent(UUID orderId, SagaProgressStep step, OrderStatus status, OrderSagaStatus sagaStatus,
+                                String reason, Instant occurredAt) {
+}
@@ -6,15 +6,16 @@ import java.util.UUID;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "cart_items")
 @Getter
 @Setter
 @NoArgsConstructor
-public class CartItemEntity {
+public class CartItemEntity implements Persistable<UUID> {
+    // Assigned by CartService, so an item keeps its id when it is written back from the hot cart store.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,18 +31,70 @@ public class CartItemEntity {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Column(name = "product_name")
+    private String productName;
+
+    @Column(name = "unit_price")
+    private Integer unitPrice;
+
+    @Column(name = "line_total")
+    private Integer lineTotal = 0;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Transient
+    private boolean persisted;
+
+    /**
+     * Records the name and price the item is sold at and returns how much the line total changed.
+     */
+    public int capturePrice(String productName, int unitPrice) {
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        return updateLineTotal();
+    }
+
+    /**
+     * Changes the quantity and returns how much the line total changed.
+     */
+    public int changeQuantity(int quantity) {
+        this.quantity = quantity;
+        return updateLineTotal();
+    }
+
+    public boolean isPriced() {
+        return unitPrice != null;
+    }
+
+    private int updateLineTotal() {
+        int previous = lineTotal == null ? 0 : lineTotal;
+        lineTotal = unitPrice == null ? 0 : unitPrice * quantity;
+        return lineTotal - previous;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
     }
 
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
@@ -3,17 +3,22 @@ package com.shopping.order.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "idempotency_store")
-public class IdempotencyRecord {
+public class IdempotencyRecord implements Persistable<IdempotencyRecordId> {
 
     @EmbeddedId
     private IdempotencyRecordId id;
@@ -21,8 +26,29 @@ public class IdempotencyRecord {
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
+    // Lets save() persist directly instead of merging, which would SELECT the assigned id first.
+    @Transient
+    private boolean persisted;
+
+    public static IdempotencyRecord of(String consumerId, UUID eventId) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(new IdempotencyRecordId(consumerId, eventId));
+        return record;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
     @PrePersist
     public void onCreate() {
         processedAt = LocalDateTime.now();
     }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -21,6 +21,9 @@ public class OutboxEvent {
     @Id
     private UUID id;
 
+    @Column(insertable = false, updatable = false, columnDefinition = "bigserial")
+    private Long seq;
+
     @Column(name = "aggregate_type", nullable = false)
     private String aggregateType;
 
@@ -0,0 +1,53 @@
+package com.shopping.order.entity;
+
+import com.shopping.order.enums.CompensationStep;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.util.Collection;
+import java.util.EnumSet;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compensation progress of a saga, kept as two step bitmasks so tracking a completed step is a bit operation
+ * on the loaded entity rather than a jsonb parse and rewrite.
+ */
+@Embeddable
+@NoArgsConstructor
+public class SagaContext {
+
+    @Column(name = "compensation_expected")
+    private short expectedSteps;
+
+    @Column(name = "compensation_completed")
+    private short completedSteps;
+
+    public static SagaContext expecting(Collection<CompensationStep> steps) {
+        SagaContext context = new SagaContext();
+        for (CompensationStep step : steps) {
+            context.expectedSteps |= (short) step.bit();
+        }
+        return context;
+    }
+
+    public boolean isCompleted(CompensationStep step) {
+        return (completedSteps & step.bit()) != 0;
+    }
+
+    public void complete(CompensationStep step) {
+        completedSteps |= (short) step.bit();
+    }
+
+    public boolean isComplete() {
+        return (expectedSteps & ~completedSteps) == 0;
+    }
+
+    public EnumSet<CompensationStep> pendingSteps() {
+        EnumSet<CompensationStep> pending = EnumSet.noneOf(CompensationStep.class);
+        for (CompensationStep step : CompensationStep.values()) {
+            if ((expectedSteps & step.bit()) != 0 && !isCompleted(step)) {
+                pending.add(step);
+            }
+        }
+        return pending;
+    }
+}
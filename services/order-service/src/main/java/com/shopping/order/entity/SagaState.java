@@ -2,6 +2,7 @@ package com.shopping.order.entity;
 
 import com.shopping.order.enums.SagaStatus;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -51,6 +52,9 @@ public class SagaState {
     @JdbcTypeCode(SqlTypes.JSON)
     private String context;
 
+    @Embedded
+    private SagaContext sagaContext;
+
     @PrePersist
     public void onCreate() {
         if (id == null) {
@@ -0,0 +1,17 @@
+package com.shopping.order.enums;
+
+public enum CompensationStep {
+    CANCEL_INVENTORY(1),
+    VOID_PAYMENT(1 << 1);
+
+    // Stored in saga_state bitmask columns, so bits must never be reused or renumbered.
+    private final int bit;
+
+    CompensationStep(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+}
@@ -0,0 +1,12 @@
+package com.shopping.order.enums;
+
+public enum SagaProgressStep {
+    STARTED,
+    RESERVED,
+    AUTHORIZED,
+    CONFIRMED,
+    FAILED,
+    COMPENSATING,
+    COMPENSATED,
+    CANCELLED
+}
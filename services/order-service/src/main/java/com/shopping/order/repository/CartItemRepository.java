@@ -1,10 +1,27 @@
 package com.shopping.order.repository;
 
 import com.shopping.order.entity.CartItemEntity;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItemEntity, UUID> {
+
+    @Query("select distinct i.productId from CartItemEntity i where i.cart.userId = :userId")
+    List<UUID> findProductIdsByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("""
+            update CartItemEntity i
+            set i.productName = :productName, i.unitPrice = :unitPrice, i.lineTotal = i.quantity * :unitPrice
+            where i.productId = :productId
+            """)
+    int updatePrice(@Param("productId") UUID productId,
+                    @Param("productName") String productName,
+                    @Param("unitPrice") int unitPrice);
 }
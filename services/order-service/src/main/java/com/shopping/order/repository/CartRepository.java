@@ -1,10 +1,36 @@
 package com.shopping.order.repository;
 
 import com.shopping.order.entity.CartEntity;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CartRepository extends JpaRepository<CartEntity, UUID> {
     Optional<CartEntity> findByUserId(String userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CartEntity c WHERE c.userId = :userId")
+    Optional<CartEntity> findByUserIdForUpdate(@Param("userId") String userId);
+
+    /**
+     * Locks the carts of {@code userIds} in id order, so concurrent flushes of overlapping batches cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CartEntity c WHERE c.userId IN :userIds ORDER BY c.id")
+    List<CartEntity> findAllByUserIdForUpdate(@Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query("""
+            update CartEntity c
+            set c.totalAmount = (select coalesce(sum(i.lineTotal), 0) from CartItemEntity i where i.cart = c)
+            where c.id in (select i.cart.id from CartItemEntity i where i.productId = :productId)
+            """)
+    int recalculateTotalsContaining(@Param("productId") UUID productId);
 }
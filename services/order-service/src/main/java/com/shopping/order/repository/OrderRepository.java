@@ -1,10 +1,34 @@
 package com.shopping.order.repository;
 
 import com.shopping.order.entity.OrderEntity;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
-    List<OrderEntity> findByUserIdOrderByCreatedAtDesc(String userId);
+
+    @Query("SELECT o.id AS id, o.status AS status, o.totalAmount AS totalAmount, o.currency AS currency, "
+            + "o.createdAt AS createdAt, o.updatedAt AS updatedAt FROM OrderEntity o "
+            + "WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findSummaryPage(@Param("userId") String userId, Limit limit);
+
+    @Query("SELECT o.id AS id, o.status AS status, o.totalAmount AS totalAmount, o.currency AS currency, "
+            + "o.createdAt AS createdAt, o.updatedAt AS updatedAt FROM OrderEntity o "
+            + "WHERE o.userId = :userId "
+            + "AND (o.createdAt < :beforeCreatedAt OR (o.createdAt = :beforeCreatedAt AND o.id < :beforeId)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryView> findSummaryPageBefore(@Param("userId") String userId,
+                                                 @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                 @Param("beforeId") UUID beforeId,
+                                                 Limit limit);
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT DISTINCT o FROM OrderEntity o WHERE o.id IN :ids")
+    List<OrderEntity> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,19 @@
+package com.shopping.order.repository;
+
+import com.shopping.order.enums.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderSummaryView {
+    UUID getId();
+
+    OrderStatus getStatus();
+
+    Integer getTotalAmount();
+
+    String getCurrency();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
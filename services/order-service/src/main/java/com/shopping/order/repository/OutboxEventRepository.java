@@ -1,11 +1,52 @@
 package com.shopping.order.repository;
 
 import com.shopping.order.entity.OutboxEvent;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
-import org.springframework.data.domain.Pageable;
+import java.util.stream.Collectors;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
-    List<OutboxEvent> findByPublishedFalseOrderByCreatedAtAsc(Pageable pageable);
+    /**
+     * Locks the next unpublished events for this publisher, skipping rows another replica already holds.
+     * Only the oldest pending event of each aggregate is eligible, so a later event for the same order
+     * can never be claimed and sent while an earlier one is still in flight elsewhere. Age is the insert
+     * sequence rather than created_at, which ties for events written in the same instant.
+     */
+    @Query(value = "SELECT o.* FROM outbox_events o "
+            + "WHERE o.published = false "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_events p "
+            + "    WHERE p.aggregate_id = o.aggregate_id AND p.published = false AND p.seq < o.seq) "
+            + "ORDER BY o.seq "
+            + "LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("limit") int limit);
+
+    long countByPublishedFalse();
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET published = true, published_at = :publishedAt "
+            + "WHERE id = ANY(CAST(:ids AS uuid[]))", nativeQuery = true)
+    int markPublished(@Param("ids") String idArray, @Param("publishedAt") LocalDateTime publishedAt);
+
+    default int markPublished(Collection<UUID> ids, LocalDateTime publishedAt) {
+        return markPublished(ids.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}")),
+                publishedAt);
+    }
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.published = false")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM outbox_events WHERE id IN ("
+            + "SELECT id FROM outbox_events WHERE published = true AND published_at < :cutoff "
+            + "ORDER BY published_at LIMIT :limit)", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
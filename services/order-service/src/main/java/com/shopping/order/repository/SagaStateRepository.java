@@ -3,15 +3,52 @@ package com.shopping.order.repository;
 import com.shopping.order.entity.SagaState;
 import com.shopping.order.enums.SagaStatus;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SagaStateRepository extends JpaRepository<SagaState, UUID> {
     Optional<SagaState> findByOrderId(UUID orderId);
 
-    List<SagaState> findByStatusAndTimeoutAtBefore(SagaStatus status, LocalDateTime timeoutAt);
+    List<SagaState> findByOrderIdIn(Collection<UUID> orderIds);
 
-    List<SagaState> findByStatusInAndTimeoutAtBefore(List<SagaStatus> statuses, LocalDateTime timeoutAt);
+    @Query("SELECT s FROM SagaState s WHERE s.status = :status AND s.timeoutAt < :now "
+            + "AND s.currentStep NOT IN ('COMPENSATION_DONE', 'COMPENSATION_EXHAUSTED') "
+            + "ORDER BY s.timeoutAt, s.id")
+    List<SagaState> findTimedOutPage(@Param("status") SagaStatus status,
+                                     @Param("now") LocalDateTime now,
+                                     Limit limit);
+
+    @Query("SELECT s FROM SagaState s WHERE s.status = :status AND s.timeoutAt < :now "
+            + "AND s.currentStep NOT IN ('COMPENSATION_DONE', 'COMPENSATION_EXHAUSTED') "
+            + "AND (s.timeoutAt > :afterTimeoutAt OR (s.timeoutAt = :afterTimeoutAt AND s.id > :afterId)) "
+            + "ORDER BY s.timeoutAt, s.id")
+    List<SagaState> findTimedOutPageAfter(@Param("status") SagaStatus status,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("afterTimeoutAt") LocalDateTime afterTimeoutAt,
+                                          @Param("afterId") UUID afterId,
+                                          Limit limit);
+
+    @Query("SELECT s.id AS id, s.orderId AS orderId, s.status AS status, s.timeoutAt AS timeoutAt "
+            + "FROM SagaState s WHERE s.status IN :statuses AND s.timeoutAt > :now "
+            + "AND s.currentStep NOT IN ('COMPENSATION_DONE', 'COMPENSATION_EXHAUSTED')")
+    Stream<SagaTimeoutView> streamPendingTimeouts(@Param("statuses") Collection<SagaStatus> statuses,
+                                                  @Param("now") LocalDateTime now);
+
+    /**
+     * Locks one timed-out saga for the caller's transaction, or returns empty if another reaper holds it or it
+     * has moved on since it was scanned.
+     */
+    @Query(value = "SELECT * FROM saga_state WHERE id = :id AND status = :status AND timeout_at < :now "
+            + "AND current_step NOT IN ('COMPENSATION_DONE', 'COMPENSATION_EXHAUSTED') "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<SagaState> claimTimedOut(@Param("id") UUID id,
+                                      @Param("status") String status,
+                                      @Param("now") LocalDateTime now);
 }
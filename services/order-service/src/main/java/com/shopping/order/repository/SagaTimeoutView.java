@@ -0,0 +1,15 @@
+package com.shopping.order.repository;
+
+import com.shopping.order.enums.SagaStatus;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface SagaTimeoutView {
+    UUID getId();
+
+    UUID getOrderId();
+
+    SagaStatus getStatus();
+
+    LocalDateTime getTimeoutAt();
+}
@@ -0,0 +1,83 @@
+package com.shopping.order.saga;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the saga dead-letter topic on demand, putting each record back on the topic it was first consumed
+ * from. Progress is kept as the offsets of a dedicated consumer group, committed after the copies are
+ * acknowledged, so a record is replayed at most once per call even if the caller retries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaDeadLetterReplayer {
+
+    private static final String GROUP_ID = "order-saga-dlq-replay";
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final SagaRetryRouter sagaRetryRouter;
+
+    @Value("${app.saga.dlq.replay.max-records:1000}")
+    private int maxRecords;
+
+    @Value("${app.saga.dlq.replay.timeout:30s}")
+    private Duration timeout;
+
+    @Value("${app.saga.dlq.replay.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+
+    /**
+     * Replays up to {@code max} dead-lettered records, oldest first, and returns how many were replayed.
+     */
+    public synchronized int replay(int max) {
+        int limit = Math.min(Math.max(max, 1), maxRecords);
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(limit));
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+        int replayed = 0;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(GROUP_ID, null, null, overrides)) {
+            consumer.subscribe(List.of(sagaRetryRouter.deadLetterTopic()));
+            while (replayed < limit && System.nanoTime() < deadline) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+                if (records.isEmpty()) {
+                    if (!consumer.assignment().isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, String> record : records) {
+                    if (replayed == limit) {
+                        break;
+                    }
+                    sagaRetryRouter.replay(record);
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                consumer.commitSync(offsets);
+            }
+        }
+        log.info("Replayed {} dead-lettered saga events", replayed);
+        return replayed;
+    }
+}
@@ -2,22 +2,51 @@ package com.shopping.order.saga;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.config.KafkaConfig;
 import com.shopping.order.entity.IdempotencyRecord;
-import com.shopping.order.entity.IdempotencyRecordId;
 import com.shopping.order.entity.OrderEntity;
+import com.shopping.order.enums.CompensationStep;
 import com.shopping.order.exception.BadRequestException;
 import com.shopping.order.repository.IdempotencyRecordRepository;
 import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.service.IdempotencyFilter;
 import com.shopping.order.service.OrderService;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
-import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Drives order sagas from inventory and payment events, in partition order per order id.
+ *
+ * <p>Ordering is only kept within a poll once an event has to be retried. An event that fails is moved to a
+ * retry topic and its order's later events in the same poll follow it there, but events of that order that
+ * arrive in later polls are applied straight away, possibly ahead of the one still waiting in retry. The
+ * handlers do not guard their state transitions. This is accepted because an order's next event normally
+ * answers a command that only applying the previous event sends, so it cannot exist while that event waits
+ * in retry. The exceptions are the two compensation replies, which may complete in either order, and events
+ * that race a saga timeout. Holding later events back across polls would need state shared by every
+ * instance consuming the main and retry topics.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -29,55 +58,251 @@ public class SagaOrchestrator {
     private final OrderService orderService;
     private final OrderRepository orderRepository;
     private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyFilter idempotencyFilter;
+    private final SagaRetryRouter sagaRetryRouter;
 
-    @Transactional
-    @KafkaListener(topics = "${app.kafka.topics.inventory-events}", groupId = "order-service")
-    public void onInventoryEvents(String payload) {
-        process(payload);
+    @Value("${app.saga.consumer.key-parallelism:1}")
+    private int keyParallelism;
+
+    private final ExecutorService laneExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("saga-lane-", 0).factory());
+
+    @PreDestroy
+    void stop() {
+        laneExecutor.shutdown();
     }
 
-    @Transactional
-    @KafkaListener(topics = "${app.kafka.topics.payment-events}", groupId = "order-service")
-    public void onPaymentEvents(String payload) {
-        process(payload);
+    @KafkaListener(
+            topics = "${app.kafka.topics.inventory-events}",
+            groupId = "order-service",
+            batch = "true",
+            concurrency = "${app.kafka.listener.concurrency.inventory-events:1}")
+    public void onInventoryEvents(List<ConsumerRecord<String, String>> records) {
+        processBatch(records);
     }
 
-    private void process(String payload) {
-        try {
-            JsonNode root = objectMapper.readTree(payload);
-            JsonNode meta = root.path("meta");
-            JsonNode data = root.path("data");
+    @KafkaListener(
+            topics = "${app.kafka.topics.payment-events}",
+            groupId = "order-service",
+            batch = "true",
+            concurrency = "${app.kafka.listener.concurrency.payment-events:1}")
+    public void onPaymentEvents(List<ConsumerRecord<String, String>> records) {
+        processBatch(records);
+    }
+
+    @KafkaListener(
+            topics = "#{@sagaRetryRouter.retryTopics()[0]}",
+            groupId = "order-service",
+            containerFactory = KafkaConfig.SAGA_RETRY_CONTAINER_FACTORY)
+    public void onFirstRetry(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        retry(record, ack);
+    }
+
+    @KafkaListener(
+            topics = "#{@sagaRetryRouter.retryTopics()[1]}",
+            groupId = "order-service",
+            containerFactory = KafkaConfig.SAGA_RETRY_CONTAINER_FACTORY)
+    public void onSecondRetry(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        retry(record, ack);
+    }
+
+    @KafkaListener(
+            topics = "#{@sagaRetryRouter.retryTopics()[2]}",
+            groupId = "order-service",
+            containerFactory = KafkaConfig.SAGA_RETRY_CONTAINER_FACTORY)
+    public void onThirdRetry(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        retry(record, ack);
+    }
+
+    /**
+     * Each retry tier has its own container, so pausing one tier until its head record is due leaves the
+     * other tiers and the main topics running.
+     */
+    private void retry(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        long remainingMs = sagaRetryRouter.remainingDelayMs(record);
+        if (remainingMs > 0) {
+            ack.nack(Duration.ofMillis(remainingMs));
+            return;
+        }
+        processBatch(List.of(record));
+        ack.acknowledge();
+    }
+
+    /**
+     * Applies a whole poll in one transaction. If that transaction fails, the poll is replayed one record
+     * per transaction and each record that still fails is set aside on a retry topic or the dead-letter
+     * topic, so the rest of the poll commits and the partition keeps moving. Unparseable records go to the
+     * dead-letter topic straight away. Only if a record cannot be set aside is the failure reported by index
+     * for Kafka to redeliver.
+     */
+    private void processBatch(List<ConsumerRecord<String, String>> records) {
+        List<SagaEvent> events = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            try {
+                events.add(parse(record, i));
+            } catch (RuntimeException e) {
+                setAside(record, i, () -> sagaRetryRouter.deadLetter(record, e));
+            }
+        }
+
+        if (!events.isEmpty()) {
+            if (keyParallelism > 1) {
+                applyInLanes(events);
+            } else {
+                applyLane(events);
+            }
+        }
+    }
+
+    /**
+     * Splits the poll into {@code key-parallelism} lanes by order id and applies the lanes concurrently, each
+     * like a poll of its own. All events of an order land in the same lane in poll order, so one order still
+     * moves strictly in sequence while different orders progress in parallel. If lanes fail, the earliest
+     * failed record is reported; records after it that other lanes already committed are skipped as
+     * duplicates when Kafka redelivers them.
+     */
+    private void applyInLanes(List<SagaEvent> events) {
+        Map<Integer, List<SagaEvent>> lanes = new HashMap<>();
+        for (SagaEvent event : events) {
+            lanes.computeIfAbsent(Math.floorMod(event.orderId().hashCode(), keyParallelism),
+                    lane -> new ArrayList<>()).add(event);
+        }
+        if (lanes.size() == 1) {
+            applyLane(events);
+            return;
+        }
+
+        List<Future<?>> results = new ArrayList<>(lanes.size());
+        lanes.values().forEach(lane -> results.add(laneExecutor.submit(() -> applyLane(lane))));
+        BatchListenerFailedException failure = null;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof BatchListenerFailedException laneFailure)) {
+                    throw new IllegalStateException("Saga lane failed unexpectedly", e.getCause());
+                }
+                if (failure == null || laneFailure.getIndex() < failure.getIndex()) {
+                    failure = laneFailure;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BatchListenerFailedException("Interrupted while applying saga events", e,
+                        events.get(0).index());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
-            String eventType = text(meta, "eventType");
-            UUID eventId = UUID.fromString(text(meta, "eventId"));
-            UUID orderId = UUID.fromString(text(data, "orderId"));
+    private void applyLane(List<SagaEvent> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(events));
+        } catch (RuntimeException batchFailure) {
+            log.warn("Saga batch of {} events failed, replaying one by one: {}",
+                    events.size(), batchFailure.getMessage());
+            applyOneByOne(events);
+        }
+    }
 
-            if (idempotencyRecordRepository.existsById(new IdempotencyRecordId(CONSUMER_ID, eventId))) {
-                return;
+    /**
+     * Once an event of an order has been set aside, the order's later events in this poll follow it to the
+     * same destination so they are not applied ahead of it. Later polls are not held back; see the class
+     * documentation.
+     */
+    private void applyOneByOne(List<SagaEvent> events) {
+        Map<UUID, RuntimeException> setAsideOrders = new HashMap<>();
+        for (SagaEvent event : events) {
+            RuntimeException failure = setAsideOrders.get(event.orderId());
+            if (failure == null) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+                    continue;
+                } catch (RuntimeException e) {
+                    failure = e;
+                    setAsideOrders.put(event.orderId(), e);
+                }
             }
+            RuntimeException cause = failure;
+            setAside(event.record(), event.index(), () -> sagaRetryRouter.reroute(event.record(), cause));
+        }
+    }
+
+    private void setAside(ConsumerRecord<String, String> record, int index, Runnable route) {
+        try {
+            route.run();
+        } catch (RuntimeException e) {
+            throw new BatchListenerFailedException("Could not set aside saga event at offset " + record.offset(),
+                    e, index);
+        }
+    }
+
+    private void apply(List<SagaEvent> events) {
+        Set<UUID> eventIds = new HashSet<>();
+        Set<UUID> orderIds = new HashSet<>();
+        for (SagaEvent event : events) {
+            eventIds.add(event.eventId());
+            orderIds.add(event.orderId());
+        }
 
-            switch (eventType) {
-                case "InventoryReserved" -> onInventoryReserved(orderId, data);
-                case "InventoryReservationFailed" -> onInventoryReservationFailed(orderId, data);
-                case "PaymentAuthorized" -> onPaymentAuthorized(orderId, data);
-                case "PaymentAuthorizationFailed" -> onPaymentAuthorizationFailed(orderId, data);
-                case "PaymentCaptured" -> onPaymentCaptured(orderId);
-                case "InventoryReservationCancelled" -> onInventoryReservationCancelled(orderId);
-                case "PaymentVoided" -> onPaymentVoided(orderId);
-                default -> log.debug("Ignoring unrelated event type {}", eventType);
+        // One query each for idempotency keys, orders and saga rows; the handlers below then hit the
+        // persistence context instead of the database. Keys the filter has never seen skip the lookup.
+        Set<UUID> seen = new HashSet<>();
+        List<UUID> candidates = idempotencyFilter.mightBeProcessed(CONSUMER_ID, eventIds);
+        if (!candidates.isEmpty()) {
+            seen.addAll(idempotencyRecordRepository.findProcessedEventIds(CONSUMER_ID, candidates));
+            idempotencyFilter.recordDuplicates(seen.size());
+        }
+        orderRepository.findAllById(orderIds);
+        orderService.prefetchSagaStates(orderIds);
+
+        List<IdempotencyRecord> processed = new ArrayList<>(events.size());
+        for (SagaEvent event : events) {
+            if (!seen.add(event.eventId())) {
+                continue;
             }
+            dispatch(event);
+            processed.add(IdempotencyRecord.of(CONSUMER_ID, event.eventId()));
+            idempotencyFilter.put(CONSUMER_ID, event.eventId());
+        }
+        idempotencyRecordRepository.saveAll(processed);
+    }
 
-            IdempotencyRecord record = new IdempotencyRecord();
-            record.setId(new IdempotencyRecordId(CONSUMER_ID, eventId));
-            idempotencyRecordRepository.save(record);
-        } catch (ObjectOptimisticLockingFailureException e) {
-            log.warn("Optimistic lock conflict while processing event, will be retried by Kafka: {}", e.getMessage());
-            throw e;
+    private SagaEvent parse(ConsumerRecord<String, String> record, int index) {
+        try {
+            JsonNode root = objectMapper.readTree(record.value());
+            JsonNode meta = root.path("meta");
+            JsonNode data = root.path("data");
+            return new SagaEvent(
+                    text(meta, "eventType"),
+                    UUID.fromString(text(meta, "eventId")),
+                    UUID.fromString(text(data, "orderId")),
+                    data,
+                    record,
+                    index);
         } catch (IOException e) {
             throw new IllegalStateException("Invalid event payload", e);
         }
     }
 
+    private void dispatch(SagaEvent event) {
+        UUID orderId = event.orderId();
+        JsonNode data = event.data();
+        switch (event.eventType()) {
+            case "InventoryReserved" -> onInventoryReserved(orderId, data);
+            case "InventoryReservationFailed" -> onInventoryReservationFailed(orderId, data);
+            case "PaymentAuthorized" -> onPaymentAuthorized(orderId, data);
+            case "PaymentAuthorizationFailed" -> onPaymentAuthorizationFailed(orderId, data);
+            case "PaymentCaptured" -> onPaymentCaptured(orderId);
+            case "InventoryReservationCancelled" -> onInventoryReservationCancelled(orderId);
+            case "PaymentVoided" -> onPaymentVoided(orderId);
+            default -> log.debug("Ignoring unrelated event type {}", event.eventType());
+        }
+    }
+
     private void onInventoryReserved(UUID orderId, JsonNode data) {
         UUID reservationId = UUID.fromString(text(data, "reservationId"));
         orderService.moveToPaymentAuthorizing(orderId, reservationId);
@@ -106,12 +331,13 @@ public class SagaOrchestrator {
     }
 
     private void onInventoryReservationCancelled(UUID orderId) {
-        orderService.handleCompensationStepCompleted(orderId, "CANCEL_INVENTORY");
+        orderService.handleCompensationStepCompleted(orderId, CompensationStep.CANCEL_INVENTORY);
     }
 
     private void onPaymentVoided(UUID orderId) {
-        orderService.handleCompensationStepCompleted(orderId, "VOID_PAYMENT");
+        orderService.handleCompensationStepCompleted(orderId, CompensationStep.VOID_PAYMENT);
     }
+
     private String text(JsonNode node, String field) {
         JsonNode value = node.path(field);
         if (value.isMissingNode() || value.isNull() || value.asText().isBlank()) {
@@ -119,4 +345,8 @@ public class SagaOrchestrator {
         }
         return value.asText();
     }
+
+    private record SagaEvent(String eventType, UUID eventId, UUID orderId, JsonNode data,
+                             ConsumerRecord<String, String> record, int index) {
+    }
 }
@@ -0,0 +1,186 @@
+package com.shopping.order.saga;
+
+import com.shopping.order.exception.BadRequestException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves saga events that cannot be applied out of the partition they block. Transient failures go through
+ * {@value #RETRY_TIERS} delayed retry topics with exponentially growing delays ({@code initial-delay},
+ * {@code initial-delay * multiplier}, ...), each topic holding a single delay so its records become due in
+ * the order they were written. Poison records, and records that fail every tier, go to the dead-letter topic
+ * with the standard {@code kafka_dlt-*} headers, from where they can be replayed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaRetryRouter {
+
+    static final int RETRY_TIERS = 3;
+    static final String ATTEMPT_HEADER = "saga-retry-attempt";
+    static final String DUE_AT_HEADER = "saga-retry-due-at";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.topics.saga-retry:order.saga.retry}")
+    private String retryTopicPrefix;
+
+    @Value("${app.kafka.topics.order-dlq:order.dlq}")
+    private String deadLetterTopic;
+
+    @Value("${app.saga.retry.initial-delay:1s}")
+    private Duration initialDelay;
+
+    @Value("${app.saga.retry.multiplier:4}")
+    private int multiplier;
+
+    @Value("${app.saga.retry.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    public String[] retryTopics() {
+        return IntStream.range(0, RETRY_TIERS).mapToObj(this::retryTopic).toArray(String[]::new);
+    }
+
+    public String deadLetterTopic() {
+        return deadLetterTopic;
+    }
+
+    /**
+     * Poison records carry bad data and fail the same way however often they are retried.
+     */
+    public boolean isPoison(Throwable failure) {
+        return failure instanceof BadRequestException || failure instanceof IllegalArgumentException;
+    }
+
+    /**
+     * Sends {@code record} to the next retry tier, or to the dead-letter topic once every tier has been tried
+     * or if {@code failure} is poison. Returns only after the broker has the copy, so the caller can let the
+     * original offset be committed.
+     */
+    public void reroute(ConsumerRecord<String, String> record, Throwable failure) {
+        int attempt = attempt(record);
+        if (isPoison(failure) || attempt >= RETRY_TIERS) {
+            deadLetter(record, failure);
+            return;
+        }
+
+        long dueAt = System.currentTimeMillis() + delay(attempt).toMillis();
+        ProducerRecord<String, String> retry = copy(record, retryTopic(attempt));
+        retry.headers().add(ATTEMPT_HEADER, intBytes(attempt + 1));
+        retry.headers().add(DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        send(retry);
+        meterRegistry.counter("saga.events.rerouted", "destination", "retry-" + attempt).increment();
+        log.warn("Saga event at {}-{}@{} failed ({}), retrying in {}", record.topic(), record.partition(),
+                record.offset(), failure.toString(), delay(attempt));
+    }
+
+    public void deadLetter(ConsumerRecord<String, String> record, Throwable failure) {
+        ProducerRecord<String, String> dead = copy(record, deadLetterTopic);
+        dead.headers().add(KafkaHeaders.DLT_ORIGINAL_PARTITION, intBytes(record.partition()));
+        dead.headers().add(KafkaHeaders.DLT_ORIGINAL_OFFSET, longBytes(record.offset()));
+        dead.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                failure.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        dead.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                String.valueOf(failure.getMessage()).getBytes(StandardCharsets.UTF_8));
+        send(dead);
+        meterRegistry.counter("saga.events.rerouted", "destination", "dlq").increment();
+        log.error("Saga event at {}-{}@{} moved to {}: {}", record.topic(), record.partition(), record.offset(),
+                deadLetterTopic, failure.toString());
+    }
+
+    /**
+     * Puts a dead-lettered record back on the topic it was first consumed from, as a fresh first attempt.
+     */
+    public void replay(ConsumerRecord<String, String> record) {
+        send(plainCopy(record, originalTopic(record)));
+        meterRegistry.counter("saga.events.replayed").increment();
+    }
+
+    /**
+     * Milliseconds until a retried record is due, zero for records that are not from a retry tier.
+     */
+    public long remainingDelayMs(ConsumerRecord<String, String> record) {
+        Header dueAt = record.headers().lastHeader(DUE_AT_HEADER);
+        if (dueAt == null) {
+            return 0;
+        }
+        return Math.max(0, Long.parseLong(new String(dueAt.value(), StandardCharsets.UTF_8))
+                - System.currentTimeMillis());
+    }
+
+    /**
+     * The topic a record was first consumed from, as recorded by the retry and dead-letter copies.
+     */
+    public String originalTopic(ConsumerRecord<String, String> record) {
+        Header original = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        return original == null ? record.topic() : new String(original.value(), StandardCharsets.UTF_8);
+    }
+
+    Duration delay(int attempt) {
+        return initialDelay.multipliedBy((long) Math.pow(multiplier, attempt));
+    }
+
+    private int attempt(ConsumerRecord<String, String> record) {
+        Header attempt = record.headers().lastHeader(ATTEMPT_HEADER);
+        return attempt == null ? 0 : ByteBuffer.wrap(attempt.value()).getInt();
+    }
+
+    private String retryTopic(int tier) {
+        return retryTopicPrefix + "-" + tier;
+    }
+
+    private ProducerRecord<String, String> copy(ConsumerRecord<String, String> record, String topic) {
+        ProducerRecord<String, String> copy = plainCopy(record, topic);
+        copy.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC,
+                originalTopic(record).getBytes(StandardCharsets.UTF_8));
+        return copy;
+    }
+
+    // Drops the headers added by earlier retries or dead-lettering so they are not stacked up.
+    private ProducerRecord<String, String> plainCopy(ConsumerRecord<String, String> record, String topic) {
+        ProducerRecord<String, String> copy = new ProducerRecord<>(topic, record.key(), record.value());
+        Headers headers = copy.headers();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("saga-retry-") && !header.key().startsWith("kafka_dlt-")) {
+                headers.add(header);
+            }
+        }
+        return copy;
+    }
+
+    private void send(ProducerRecord<String, String> record) {
+        try {
+            kafkaTemplate.send(record).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not write saga event to " + record.topic(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing saga event to " + record.topic(), e);
+        }
+    }
+
+    private static byte[] intBytes(int value) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+}
@@ -0,0 +1,42 @@
+package com.shopping.order.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-prices open carts when product-service publishes a product with its current price. Unlike the
+ * per-instance cache invalidation this runs once per event across the service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CartPriceListener {
+
+    private final ObjectMapper objectMapper;
+    private final CartService cartService;
+
+    @KafkaListener(topics = "${app.kafka.topics.product-events}", groupId = "order-service")
+    public void onProductEvent(String payload) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable product event: {}", e.getMessage());
+            return;
+        }
+
+        JsonNode productId = event.path("productId");
+        JsonNode basePrice = event.path("basePrice");
+        if (!productId.isTextual() || !basePrice.isInt()) {
+            return;
+        }
+        cartService.applyPriceChange(UUID.fromString(productId.asText()), event.path("name").asText(null),
+                basePrice.asInt());
+    }
+}
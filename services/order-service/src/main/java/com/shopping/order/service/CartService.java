@@ -9,87 +9,119 @@ import com.shopping.order.entity.OrderItem;
 import com.shopping.order.enums.OrderSagaStatus;
 import com.shopping.order.enums.OrderStatus;
 import com.shopping.order.exception.BadRequestException;
+import com.shopping.order.exception.ConflictException;
 import com.shopping.order.exception.NotFoundException;
 import com.shopping.order.repository.CartItemRepository;
 import com.shopping.order.repository.CartRepository;
 import com.shopping.order.repository.OrderRepository;
 import com.shopping.order.dto.CheckoutResponse;
 import com.shopping.order.dto.CheckoutRequest;
+import com.shopping.order.client.ProductCache;
 import com.shopping.order.client.ProductDto;
-import com.shopping.order.client.ProductServiceClient;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Cart items keep the price they were added at, and the cart total is adjusted by each item's change in line
+ * total, so a mutation only looks up the products it touches. The whole cart is re-priced at checkout and, for
+ * a single product, when product-service announces a new price.
+ */
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
+    private static final String UNKNOWN_PRODUCT = "Unknown Product";
+    private static final int HOT_UPDATE_ATTEMPTS = 5;
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderRepository orderRepository;
-    private final ProductServiceClient productServiceClient;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final HotCartStore hotCartStore;
 
-    @Transactional
     public CartResponse getCart(String userId) {
-        CartEntity cart = getOrCreateCart(userId);
-        return toResponse(cart);
+        return update(userId, this::priceUnpricedItems);
     }
 
-    @Transactional
     public CartResponse addItem(String userId, CartItemRequest request) {
-        CartEntity cart = getOrCreateCart(userId);
-
-        CartItemEntity item = new CartItemEntity();
-        item.setCart(cart);
-        item.setProductId(request.getProductId());
-        item.setVariantId(request.getVariantId());
-        item.setQuantity(request.getQuantity());
+        return update(userId, cart -> {
+            CartItemEntity item = new CartItemEntity();
+            item.setId(UUID.randomUUID());
+            item.setCart(cart);
+            item.setProductId(request.getProductId());
+            item.setVariantId(request.getVariantId());
+            item.setQuantity(request.getQuantity());
+            cart.getItems().add(item);
 
-        item = cartItemRepository.save(item);
-        cart.getItems().add(item);
-
-        recalculateTotal(cart);
-        cartRepository.save(cart);
-        return toResponse(cart);
+            priceUnpricedItems(cart);
+            return true;
+        });
     }
 
-    @Transactional
     public CartResponse removeItem(String userId, UUID itemId) {
-        CartEntity cart = getOrCreateCart(userId);
+        return update(userId, cart -> {
+            priceUnpricedItems(cart);
 
-        boolean removed = cart.getItems().removeIf(item -> item.getId().equals(itemId));
-        if (!removed) {
-            throw new NotFoundException("Cart item not found");
-        }
-
-        recalculateTotal(cart);
-        cartRepository.save(cart);
-        return toResponse(cart);
+            CartItemEntity item = findItem(cart, itemId);
+            cart.getItems().remove(item);
+            adjustTotal(cart, -lineTotal(item));
+            return true;
+        });
     }
 
-    @Transactional
     public CartResponse updateItem(String userId, UUID itemId, CartItemRequest request) {
-        CartEntity cart = getOrCreateCart(userId);
-
-        CartItemEntity item = cart.getItems().stream()
-                .filter(existing -> existing.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new NotFoundException("Cart item not found"));
+        return update(userId, cart -> {
+            priceUnpricedItems(cart);
 
-        item.setQuantity(request.getQuantity());
-        item.setVariantId(request.getVariantId());
-
-        recalculateTotal(cart);
-        cartRepository.save(cart);
-        return toResponse(cart);
+            CartItemEntity item = findItem(cart, itemId);
+            item.setVariantId(request.getVariantId());
+            adjustTotal(cart, item.changeQuantity(request.getQuantity()));
+            return true;
+        });
     }
 
+    /**
+     * Applies a product's new price to every cart holding it, directly in the database. Carts held in the hot
+     * store keep their captured prices until checkout re-prices them.
+     */
     @Transactional
+    public void applyPriceChange(UUID productId, String productName, int unitPrice) {
+        if (cartItemRepository.updatePrice(productId, productName, unitPrice) > 0) {
+            cartRepository.recalculateTotalsContaining(productId);
+        }
+    }
+
+    /**
+     * Product details are fetched before the order transaction opens, so no database connection is held while
+     * product-service answers. Items added to the cart in between keep the price they were added at. A hot cart
+     * is moved into the locked cart row inside the transaction, so the order is built from the latest state and
+     * no flush can write it back afterwards.
+     */
     public CheckoutResponse checkout(String userId, CheckoutRequest request) {
-        CartEntity cart = cartRepository.findByUserId(userId)
+        Map<UUID, ProductDto> products = productCache.getProducts(productIds(userId));
+        return transactionTemplate.execute(status -> placeOrder(userId, request, products));
+    }
+
+    private List<UUID> productIds(String userId) {
+        Optional<HotCartStore.HotCart> hot = hotCartStore.isEnabled() ? hotCartStore.load(userId) : Optional.empty();
+        return hot.map(cart -> cart.cart().getItems().stream().map(CartItemEntity::getProductId).distinct().toList())
+                .orElseGet(() -> cartItemRepository.findProductIdsByUserId(userId));
+    }
+
+    private CheckoutResponse placeOrder(String userId, CheckoutRequest request, Map<UUID, ProductDto> products) {
+        CartEntity cart = cartRepository.findByUserIdForUpdate(userId)
                 .orElseThrow(() -> new NotFoundException("Cart not found for user: " + userId));
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.takeInto(cart);
+        }
 
         if (cart.getItems().isEmpty()) {
             throw new BadRequestException("Cannot checkout empty cart");
@@ -101,28 +133,26 @@ public class CartService {
         order.setStatus(OrderStatus.PENDING_APPROVAL);
         order.setSagaStatus(OrderSagaStatus.NONE);
 
+        // Full re-price: current prices where product-service answered, captured prices otherwise.
+        int total = 0;
         for (CartItemEntity cartItem : cart.getItems()) {
-            String productName = "Unknown Product";
-            Integer unitPrice = 0;
-            try {
-                ProductDto product = productServiceClient.getProduct(cartItem.getProductId());
-                productName = product.getName();
-                unitPrice = product.getBasePrice();
-            } catch (Exception e) {
-                // fallback if product-service is unavailable
+            ProductDto product = products.get(cartItem.getProductId());
+            if (product != null) {
+                cartItem.capturePrice(product.getName(), product.getBasePrice());
             }
+            total += lineTotal(cartItem);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProductId(cartItem.getProductId());
             orderItem.setVariantId(cartItem.getVariantId());
-            orderItem.setProductName(productName);
+            orderItem.setProductName(productName(cartItem));
             orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setUnitPrice(unitPrice);
+            orderItem.setUnitPrice(unitPrice(cartItem));
             order.getItems().add(orderItem);
         }
 
-        order.setTotalAmount(cart.getTotalAmount());
+        order.setTotalAmount(total);
         order.setShippingAddress(request.getShippingAddress());
 
         order = orderRepository.save(order);
@@ -136,26 +166,116 @@ public class CartService {
                 order.getCurrency());
     }
 
-    private CartEntity getOrCreateCart(String userId) {
-        return cartRepository.findByUserId(userId).orElseGet(() -> {
-            CartEntity newCart = new CartEntity();
-            newCart.setUserId(userId);
-            return cartRepository.save(newCart);
+    /**
+     * Loads the cart, applies {@code change} and stores the cart again if {@code change} reports a modification.
+     * With the hot store enabled this touches only Redis, apart from seeding a cart that is not there yet, and a
+     * change that lost the race against another change to the same cart is applied again to the newer copy.
+     */
+    private CartResponse update(String userId, Predicate<CartEntity> change) {
+        if (hotCartStore.isEnabled()) {
+            for (int attempt = 0; attempt < HOT_UPDATE_ATTEMPTS; attempt++) {
+                Optional<HotCartStore.HotCart> hot = hotCartStore.load(userId);
+                if (hot.isEmpty()) {
+                    seedHotCart(userId);
+                    continue;
+                }
+                CartEntity cart = hot.get().cart();
+                if (!change.test(cart) || hotCartStore.save(cart, hot.get().version())) {
+                    return toResponse(cart);
+                }
+            }
+            throw new ConflictException("Cart is being changed concurrently, please try again");
+        }
+
+        return transactionTemplate.execute(status -> {
+            CartEntity cart = getOrCreateCart(userId);
+            if (change.test(cart)) {
+                cart.getItems().stream()
+                        .filter(CartItemEntity::isNew)
+                        .forEach(cartItemRepository::save);
+                cartRepository.save(cart);
+            }
+            return toResponse(cart);
+        });
+    }
+
+    /**
+     * Copies the stored cart into Redis while holding its row lock, so a checkout cannot clear the cart between
+     * the read and the write. Losing to a concurrent seed is fine: the caller reloads either way.
+     */
+    private void seedHotCart(String userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            CartEntity cart = cartRepository.findByUserIdForUpdate(userId).orElseGet(() -> createCart(userId));
+            cart.getItems().size();
+            hotCartStore.save(cart, 0);
         });
     }
 
-    private void recalculateTotal(CartEntity cart) {
-        int total = cart.getItems().stream()
-                .mapToInt(item -> {
-                    try {
-                        ProductDto product = productServiceClient.getProduct(item.getProductId());
-                        return item.getQuantity() * product.getBasePrice();
-                    } catch (Exception e) {
-                        return 0; // fallback if product-service unavailable
-                    }
-                })
-                .sum();
-        cart.setTotalAmount(total);
+    private CartEntity getOrCreateCart(String userId) {
+        return cartRepository.findByUserId(userId).orElseGet(() -> createCart(userId));
+    }
+
+    private CartEntity createCart(String userId) {
+        CartEntity newCart = new CartEntity();
+        newCart.setUserId(userId);
+        return cartRepository.save(newCart);
+    }
+
+    private CartItemEntity findItem(CartEntity cart, UUID itemId) {
+        return cart.getItems().stream()
+                .filter(existing -> existing.getId().equals(itemId))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Cart item not found"));
+    }
+
+    /**
+     * Looks up prices for items that have none yet: new items, items whose lookup failed earlier and rows
+     * written before prices were captured. The latter are already part of the stored total, so the total is
+     * rebuilt from the line totals once they are priced.
+     */
+    private boolean priceUnpricedItems(CartEntity cart) {
+        List<CartItemEntity> unpriced = cart.getItems().stream()
+                .filter(item -> !item.isPriced())
+                .toList();
+        if (unpriced.isEmpty()) {
+            return false;
+        }
+
+        Map<UUID, ProductDto> products = productCache.getProducts(unpriced.stream()
+                .map(CartItemEntity::getProductId)
+                .toList());
+        boolean priced = false;
+        boolean legacy = false;
+        for (CartItemEntity item : unpriced) {
+            ProductDto product = products.get(item.getProductId());
+            if (product == null) {
+                continue;
+            }
+            priced = true;
+            legacy |= item.getLineTotal() == null;
+            adjustTotal(cart, item.capturePrice(product.getName(), product.getBasePrice()));
+        }
+        if (legacy) {
+            cart.setTotalAmount(cart.getItems().stream().mapToInt(this::lineTotal).sum());
+        }
+        return priced;
+    }
+
+    private void adjustTotal(CartEntity cart, int delta) {
+        cart.setTotalAmount(cart.getTotalAmount() + delta);
+    }
+
+    private int lineTotal(CartItemEntity item) {
+        return item.getLineTotal() == null ? 0 : item.getLineTotal();
+    }
+
+    // fallback if product-service was unavailable when the item was priced
+    private String productName(CartItemEntity item) {
+        return item.getProductName() != null ? item.getProductName() : UNKNOWN_PRODUCT;
+    }
+
+    private int unitPrice(CartItemEntity item) {
+        return item.getUnitPrice() != null ? item.getUnitPrice() : 0;
     }
 
     private CartResponse toResponse(CartEntity cart) {
@@ -167,26 +287,15 @@ public class CartService {
                 .createdAt(cart.getCreatedAt())
                 .updatedAt(cart.getUpdatedAt())
                 .items(cart.getItems().stream()
-                        .map(item -> {
-                            String productName = "Unknown Product";
-                            Integer unitPrice = 0;
-                            try {
-                                ProductDto product = productServiceClient.getProduct(item.getProductId());
-                                productName = product.getName();
-                                unitPrice = product.getBasePrice();
-                            } catch (Exception e) {
-                                // fallback if product-service is unavailable
-                            }
-
-                            return CartResponse.CartItemView.builder()
-                                    .id(item.getId())
-                                    .productId(item.getProductId())
-                                    .variantId(item.getVariantId())
-                                    .productName(productName)
-                                    .quantity(item.getQuantity())
-                                    .unitPrice(unitPrice)
-                                    .build();
-                        })
+                        .map(item -> CartResponse.CartItemView.builder()
+                                .id(item.getId())
+                                .productId(item.getProductId())
+                                .variantId(item.getVariantId())
+                                .productName(productName(item))
+                                .quantity(item.getQuantity())
+                                .unitPrice(unitPrice(item))
+                                .lineTotal(lineTotal(item))
+                                .build())
                         .toList())
                 .build();
     }
@@ -0,0 +1,340 @@
+package com.shopping.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.entity.CartEntity;
+import com.shopping.order.entity.CartItemEntity;
+import com.shopping.order.exception.ConflictException;
+import com.shopping.order.repository.CartItemRepository;
+import com.shopping.order.repository.CartRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional Redis home for live carts. Each cart is a hash under {@code cart:<userId>} with one field for the
+ * cart and one per item, and every change scores the user in the {@code cart:dirty} sorted set with the time of
+ * the change. A scheduled flush claims due users in batches and writes their carts to {@code carts}/{@code
+ * cart_items} in one transaction, so a browsing session costs a handful of database writes instead of one per
+ * click.
+ *
+ * <p>A claim only leases the users by pushing their score into the future; they leave the set once the flush
+ * has committed, and only if no change re-scored them meanwhile. A flush that fails or dies is picked up again
+ * when the lease runs out.
+ *
+ * <p>Redis is the authoritative copy while a cart is hot. Each copy carries a version, and a write only lands
+ * on the version it was read at, so concurrent changes to one cart are retried instead of overwriting each
+ * other. Flushes, checkout and seeding all work under the cart row lock, and checkout removes the copy before
+ * its transaction commits, so a flush can never write a cart back after it was ordered.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotCartStore {
+
+    static final String DIRTY_KEY = "cart:dirty";
+    private static final String KEY_PREFIX = "cart:";
+    private static final String CART_FIELD = "cart";
+    private static final String ITEM_FIELD_PREFIX = "item:";
+    private static final String VERSION_FIELD = "version";
+
+    // ARGV: expected version (0 for none), new version, ttl millis, user id, dirty score, then field/value pairs.
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            if tonumber(redis.call('HGET', KEYS[1], 'version') or '0') ~= tonumber(ARGV[1]) then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'version', ARGV[2], unpack(ARGV, 6))
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('ZADD', KEYS[2], ARGV[5], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> DISCARD_SCRIPT = new DefaultRedisScript<>("""
+            local version = redis.call('HGET', KEYS[1], 'version')
+            if version and tonumber(version) ~= tonumber(ARGV[1]) then
+              return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static final RedisScript<List<String>> CLAIM_SCRIPT = new DefaultRedisScript("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[3])
+            for _, user in ipairs(due) do
+              redis.call('ZADD', KEYS[1], ARGV[2], user)
+            end
+            return due
+            """, List.class);
+
+    static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local released = 0
+            for i = 2, #ARGV do
+              if tonumber(redis.call('ZSCORE', KEYS[1], ARGV[i])) == tonumber(ARGV[1]) then
+                released = released + redis.call('ZREM', KEYS[1], ARGV[i])
+              end
+            end
+            return released
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.cart.hot-store.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cart.hot-store.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.cart.hot-store.flush-batch-size:100}")
+    private int flushBatchSize;
+
+    @Value("${app.cart.hot-store.flush-lease:10s}")
+    private Duration flushLease;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A hot cart and the version it was read at.
+     */
+    public record HotCart(CartEntity cart, long version) {
+    }
+
+    public Optional<HotCart> load(String userId) {
+        Map<String, String> hash = redisTemplate.<String, String>opsForHash().entries(key(userId));
+        if (hash.isEmpty()) {
+            return Optional.empty();
+        }
+        long version = Long.parseLong(hash.getOrDefault(VERSION_FIELD, "0"));
+        return Optional.of(new HotCart(fromHash(userId, hash), version));
+    }
+
+    /**
+     * Replaces the hot copy of {@code cart} and marks it for write-behind, unless the copy is no longer at
+     * {@code expectedVersion}; 0 expects no copy at all. Returns whether the write landed.
+     */
+    public boolean save(CartEntity cart, long expectedVersion) {
+        return store(cart, expectedVersion, expectedVersion + 1);
+    }
+
+    private boolean store(CartEntity cart, long expectedVersion, long newVersion) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(expectedVersion));
+        args.add(String.valueOf(newVersion));
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(cart.getUserId());
+        args.add(String.valueOf(System.currentTimeMillis()));
+        toHash(cart).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long written = redisTemplate.execute(SAVE_SCRIPT, List.of(key(cart.getUserId()), DIRTY_KEY), args.toArray());
+        return written != null && written > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.hot-store.flush-interval-ms:1000}")
+    public void flushDirty() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String lease = String.valueOf(now + flushLease.toMillis());
+        List<String> userIds = redisTemplate.execute(CLAIM_SCRIPT, List.of(DIRTY_KEY), String.valueOf(now), lease,
+                String.valueOf(flushBatchSize));
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            Integer flushed = transactionTemplate.execute(status -> persist(userIds));
+            log.debug("Flushed {} hot carts", flushed);
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} hot carts failed, will retry: {}", userIds.size(), e.getMessage());
+            return;
+        }
+        List<String> args = new ArrayList<>(userIds.size() + 1);
+        args.add(lease);
+        args.addAll(userIds);
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(DIRTY_KEY), args.toArray());
+    }
+
+    /**
+     * Applies the hot copy of {@code cart}, which the caller's transaction has locked, to the managed entity for
+     * checkout. The copy is removed from Redis right before that transaction commits and put back if the commit
+     * fails. If the cart was changed in the meantime the checkout fails instead, so the change is neither lost
+     * nor left behind for a flush to write into the cleared cart.
+     */
+    public void takeInto(CartEntity cart) {
+        Optional<HotCart> hot = load(cart.getUserId());
+        if (hot.isEmpty()) {
+            return;
+        }
+        CartEntity snapshot = hot.get().cart();
+        long version = hot.get().version();
+        apply(cart, snapshot);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean removed;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                Long discarded = redisTemplate.execute(DISCARD_SCRIPT, List.of(key(cart.getUserId()), DIRTY_KEY),
+                        String.valueOf(version), cart.getUserId());
+                if (discarded == null || discarded == 0) {
+                    throw new ConflictException("Cart was changed during checkout, please try again");
+                }
+                removed = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (removed && status == STATUS_ROLLED_BACK && !store(snapshot, 0, version)) {
+                    log.warn("Cart of user {} was seeded again before its hot copy could be restored",
+                            cart.getUserId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the hot copies of the given users' carts, reading each one only after its row is locked. A copy that
+     * is gone by then was checked out or expired and is skipped.
+     */
+    private int persist(List<String> userIds) {
+        List<CartEntity> carts = cartRepository.findAllByUserIdForUpdate(userIds);
+        if (carts.size() < userIds.size()) {
+            log.warn("Dropping {} hot carts whose cart rows no longer exist", userIds.size() - carts.size());
+        }
+        int flushed = 0;
+        for (CartEntity cart : carts) {
+            Optional<HotCart> snapshot = load(cart.getUserId());
+            if (snapshot.isPresent()) {
+                apply(cart, snapshot.get().cart());
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    private void apply(CartEntity cart, CartEntity snapshot) {
+        if (!cart.getId().equals(snapshot.getId())) {
+            log.warn("Dropping hot cart of user {}: cart {} no longer exists", snapshot.getUserId(),
+                    snapshot.getId());
+            return;
+        }
+        cart.setCurrency(snapshot.getCurrency());
+        cart.setTotalAmount(snapshot.getTotalAmount());
+
+        Map<UUID, CartItemEntity> items = new HashMap<>();
+        cart.getItems().forEach(item -> items.put(item.getId(), item));
+        for (CartItemEntity source : snapshot.getItems()) {
+            CartItemEntity item = items.remove(source.getId());
+            if (item == null) {
+                source.setCart(cart);
+                cart.getItems().add(cartItemRepository.save(source));
+                continue;
+            }
+            item.setVariantId(source.getVariantId());
+            item.setQuantity(source.getQuantity());
+            item.setProductName(source.getProductName());
+            item.setUnitPrice(source.getUnitPrice());
+            item.setLineTotal(source.getLineTotal());
+        }
+        cart.getItems().removeAll(items.values());
+    }
+
+    Map<String, String> toHash(CartEntity cart) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put(CART_FIELD, write(new CartValue(cart.getId(), cart.getCurrency(), cart.getTotalAmount(),
+                cart.getCreatedAt(), cart.getUpdatedAt())));
+        for (CartItemEntity item : cart.getItems()) {
+            LocalDateTime createdAt = item.getCreatedAt() != null ? item.getCreatedAt() : LocalDateTime.now();
+            hash.put(ITEM_FIELD_PREFIX + item.getId(), write(new ItemValue(item.getId(), item.getProductId(),
+                    item.getVariantId(), item.getQuantity(), item.getProductName(), item.getUnitPrice(),
+                    item.getLineTotal(), createdAt, item.isPersisted())));
+        }
+        return hash;
+    }
+
+    CartEntity fromHash(String userId, Map<String, String> hash) {
+        CartValue value = read(hash.get(CART_FIELD), CartValue.class);
+        CartEntity cart = new CartEntity();
+        cart.setId(value.id());
+        cart.setUserId(userId);
+        cart.setCurrency(value.currency());
+        cart.setTotalAmount(value.totalAmount());
+        cart.setCreatedAt(value.createdAt());
+        cart.setUpdatedAt(value.updatedAt());
+
+        hash.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(ITEM_FIELD_PREFIX))
+                .map(entry -> read(entry.getValue(), ItemValue.class))
+                .sorted(Comparator.comparing(ItemValue::createdAt).thenComparing(ItemValue::id))
+                .forEach(itemValue -> {
+                    CartItemEntity item = new CartItemEntity();
+                    item.setId(itemValue.id());
+                    item.setCart(cart);
+                    item.setProductId(itemValue.productId());
+                    item.setVariantId(itemValue.variantId());
+                    item.setQuantity(itemValue.quantity());
+                    item.setProductName(itemValue.productName());
+                    item.setUnitPrice(itemValue.unitPrice());
+                    item.setLineTotal(itemValue.lineTotal());
+                    item.setCreatedAt(itemValue.createdAt());
+                    item.setPersisted(itemValue.persisted());
+                    cart.getItems().add(item);
+                });
+        return cart;
+    }
+
+    private String key(String userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize hot cart", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read hot cart", e);
+        }
+    }
+
+    private record CartValue(UUID id, String currency, Integer totalAmount, LocalDateTime createdAt,
+                             LocalDateTime updatedAt) {
+    }
+
+    private record ItemValue(UUID id, UUID productId, UUID variantId, Integer quantity, String productName,
+                             Integer unitPrice, Integer lineTotal, LocalDateTime createdAt, boolean persisted) {
+    }
+}
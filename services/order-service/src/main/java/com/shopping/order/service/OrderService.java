@@ -1,45 +1,73 @@
 package com.shopping.order.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopping.order.dto.ApproveOrderRequest;
+import com.shopping.order.dto.OrderHistoryPage;
 import com.shopping.order.dto.OrderResponse;
+import com.shopping.order.dto.OrderSummaryResponse;
 import com.shopping.order.dto.RefundRequest;
+import com.shopping.order.dto.SagaProgressEvent;
 import com.shopping.order.entity.OrderEntity;
+import com.shopping.order.entity.SagaContext;
 import com.shopping.order.entity.SagaState;
+import com.shopping.order.enums.CompensationStep;
 import com.shopping.order.enums.OrderSagaStatus;
 import com.shopping.order.enums.OrderStatus;
+import com.shopping.order.enums.SagaProgressStep;
 import com.shopping.order.enums.SagaStatus;
 import com.shopping.order.exception.BadRequestException;
 import com.shopping.order.exception.NotFoundException;
 import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.repository.OrderSummaryView;
 import com.shopping.order.repository.SagaStateRepository;
 import com.shopping.order.dto.OrderStatusResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final Object SAGA_PREFETCH_KEY = OrderService.class.getName() + ".sagaPrefetch";
+
     private final OrderRepository orderRepository;
     private final SagaStateRepository sagaStateRepository;
     private final OutboxService outboxService;
     private final ObjectMapper objectMapper;
+    private final SagaTimeoutWheel sagaTimeoutWheel;
+    private final OrderStatusStore orderStatusStore;
+    private final SagaProgressHub sagaProgressHub;
+
+    @Value("${app.orders.history.max-page-size:100}")
+    private int historyMaxPageSize;
+
+    @Value("${app.orders.status.max-wait:25s}")
+    private Duration statusMaxWait;
 
     @Value("${app.saga.compensation.max-retries:5}")
     private int compensationMaxRetries;
@@ -54,15 +82,45 @@ public class OrderService {
         return toResponse(order);
     }
 
+    /**
+     * Returns one page of the user's orders with their items, newest first. The page is picked by keyset on
+     * {@code (created_at, id)} and its items are loaded with one fetch join, never per order.
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUser(String userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+    public OrderHistoryPage<OrderResponse> getOrdersByUser(String userId, String cursor, int size) {
+        List<OrderSummaryView> page = findHistoryPage(userId, cursor, size);
+        Map<UUID, OrderEntity> orders = orderRepository.findWithItemsByIdIn(
+                        page.stream().map(OrderSummaryView::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(OrderEntity::getId, order -> order));
+        List<OrderResponse> responses = page.stream()
+                .map(summary -> orders.get(summary.getId()))
+                .filter(Objects::nonNull)
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+        return new OrderHistoryPage<>(responses, nextCursor(page, size));
+    }
+
+    /**
+     * Like {@link #getOrdersByUser} but reads only the order columns, without touching {@code order_items}.
+     */
+    @Transactional(readOnly = true)
+    public OrderHistoryPage<OrderSummaryResponse> getOrderSummariesByUser(String userId, String cursor, int size) {
+        List<OrderSummaryView> page = findHistoryPage(userId, cursor, size);
+        List<OrderSummaryResponse> summaries = page.stream()
+                .map(summary -> OrderSummaryResponse.builder()
+                        .id(summary.getId())
+                        .status(summary.getStatus())
+                        .totalAmount(summary.getTotalAmount())
+                        .currency(summary.getCurrency())
+                        .createdAt(summary.getCreatedAt())
+                        .updatedAt(summary.getUpdatedAt())
+                        .build())
+                .toList();
+        return new OrderHistoryPage<>(summaries, nextCursor(page, size));
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "order-status", key = "#orderId")
     public OrderStatusResponse approve(UUID orderId, ApproveOrderRequest request) {
         OrderEntity order = findOrder(orderId);
         ensureStatus(order, OrderStatus.PENDING_APPROVAL, "Order must be pending approval");
@@ -70,15 +128,17 @@ public class OrderService {
         order.setStatus(OrderStatus.PLACED);
         order.setSagaStatus(OrderSagaStatus.RUNNING);
 
-        SagaState sagaState = sagaStateRepository.findByOrderId(orderId).orElseGet(SagaState::new);
+        SagaState sagaState = findSagaState(orderId).orElseGet(SagaState::new);
         sagaState.setOrderId(orderId);
         sagaState.setCurrentStep("INVENTORY_RESERVATION");
         sagaState.setStatus(SagaStatus.RUNNING);
         sagaState.setTimeoutAt(LocalDateTime.now().plusMinutes(5));
         sagaStateRepository.save(sagaState);
+        scheduleTimeout(sagaState, SagaStatus.RUNNING);
 
         order.setStatus(OrderStatus.INVENTORY_RESERVING);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.STARTED);
 
         String paymentMethod = request.getPaymentMethod() == null ? "MOCK" : request.getPaymentMethod();
 
@@ -108,7 +168,6 @@ public class OrderService {
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "order-status", key = "#orderId")
     public OrderStatusResponse cancel(UUID orderId, String reason) {
         OrderEntity order = findOrder(orderId);
 
@@ -116,7 +175,7 @@ public class OrderService {
             throw new BadRequestException("Confirmed/refunded order cannot be cancelled");
         }
 
-        SagaState sagaState = sagaStateRepository.findByOrderId(orderId).orElse(null);
+        SagaState sagaState = findSagaState(orderId).orElse(null);
         if (sagaState != null && sagaState.getStatus() == SagaStatus.RUNNING) {
             sagaState.setStatus(SagaStatus.COMPENSATING);
             sagaState.setCurrentStep("CANCELLED_BY_USER");
@@ -128,6 +187,7 @@ public class OrderService {
         order.setSagaStatus(OrderSagaStatus.COMPENSATING);
         order.setFailureReason(reason == null ? "Cancelled by user" : reason);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.CANCELLED);
 
         outboxService.enqueue(
                 "ORDER",
@@ -143,7 +203,6 @@ public class OrderService {
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "order-status", key = "#orderId")
     public OrderStatusResponse refund(UUID orderId, RefundRequest request) {
         OrderEntity order = findOrder(orderId);
         ensureStatus(order, OrderStatus.CONFIRMED, "Only confirmed orders can be refunded");
@@ -154,6 +213,7 @@ public class OrderService {
         int refundAmount = request.getAmount() == null ? order.getTotalAmount() : request.getAmount();
         order.setStatus(OrderStatus.REFUND_REQUESTED);
         orderRepository.save(order);
+        publishStatus(order);
 
         outboxService.enqueue(
                 "ORDER",
@@ -172,11 +232,52 @@ public class OrderService {
                 "Refund requested");
     }
 
-    @Transactional(readOnly = true)
-    @Cacheable(cacheNames = "order-status", key = "#orderId")
+    /**
+     * Served from the Redis projection; only an order without an entry is read from the database, and that
+     * read seeds the entry.
+     */
     public OrderStatusResponse getOrderStatus(UUID orderId) {
-        OrderEntity order = findOrder(orderId);
-        return new OrderStatusResponse(order.getId(), order.getStatus(), order.getSagaStatus().name(), "OK");
+        return orderStatusStore.get(orderId).orElseGet(() -> {
+            OrderEntity order = findOrder(orderId);
+            orderStatusStore.put(order);
+            return new OrderStatusResponse(order.getId(), order.getStatus(), order.getSagaStatus().name(), "OK");
+        });
+    }
+
+    /**
+     * Long-poll for a status change: answers at once if the status already differs from {@code seenStatus},
+     * otherwise when the order's projection next changes or {@code waitMs} (capped) has passed, whichever is
+     * first. The request thread is released while waiting.
+     */
+    public CompletableFuture<OrderStatusResponse> awaitOrderStatus(UUID orderId, OrderStatus seenStatus, long waitMs) {
+        Duration wait = Duration.ofMillis(Math.max(waitMs, 0));
+        if (wait.compareTo(statusMaxWait) > 0) {
+            wait = statusMaxWait;
+        }
+        if (seenStatus == null || wait.isZero()) {
+            return CompletableFuture.completedFuture(getOrderStatus(orderId));
+        }
+
+        CompletableFuture<Void> change = orderStatusStore.awaitChange(orderId, wait);
+        OrderStatusResponse current;
+        try {
+            current = getOrderStatus(orderId);
+        } catch (RuntimeException e) {
+            change.cancel(false);
+            throw e;
+        }
+        if (current.getStatus() != seenStatus) {
+            change.cancel(false);
+            return CompletableFuture.completedFuture(current);
+        }
+        return change.thenApply(ignored -> getOrderStatus(orderId));
+    }
+
+    /**
+     * Streams the order's current status followed by each saga transition until the saga finishes.
+     */
+    public SseEmitter streamProgress(UUID orderId) {
+        return sagaProgressHub.subscribe(orderId, () -> getOrderStatus(orderId));
     }
 
     @Transactional
@@ -186,8 +287,9 @@ public class OrderService {
         order.setSagaStatus(OrderSagaStatus.FAILED);
         order.setFailureReason(reason);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.FAILED);
 
-        sagaStateRepository.findByOrderId(orderId).ifPresent(saga -> {
+        findSagaState(orderId).ifPresent(saga -> {
             saga.setStatus(SagaStatus.FAILED);
             saga.setCurrentStep(step);
             sagaStateRepository.save(saga);
@@ -209,8 +311,9 @@ public class OrderService {
         order.setStatus(OrderStatus.CONFIRMED);
         order.setSagaStatus(OrderSagaStatus.COMPLETED);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.CONFIRMED);
 
-        sagaStateRepository.findByOrderId(orderId).ifPresent(saga -> {
+        findSagaState(orderId).ifPresent(saga -> {
             saga.setStatus(SagaStatus.COMPLETED);
             saga.setCurrentStep("DONE");
             sagaStateRepository.save(saga);
@@ -232,12 +335,14 @@ public class OrderService {
         order.setReservationId(reservationId);
         order.setStatus(OrderStatus.PAYMENT_AUTHORIZING);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.RESERVED);
 
-        SagaState sagaState = sagaStateRepository.findByOrderId(orderId)
+        SagaState sagaState = findSagaState(orderId)
                 .orElseThrow(() -> new NotFoundException("Saga state not found for order " + orderId));
         sagaState.setCurrentStep("PAYMENT_AUTHORIZATION");
         sagaState.setTimeoutAt(LocalDateTime.now().plusMinutes(5));
         sagaStateRepository.save(sagaState);
+        scheduleTimeout(sagaState, SagaStatus.RUNNING);
 
         outboxService.enqueue(
                 "ORDER",
@@ -259,6 +364,7 @@ public class OrderService {
         OrderEntity order = findOrder(orderId);
         order.setPaymentId(paymentId);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.AUTHORIZED);
 
         outboxService.enqueue(
                 "ORDER",
@@ -281,7 +387,7 @@ public class OrderService {
 
     @Transactional
     public void createCompensationCommands(OrderEntity order, String reason) {
-        List<String> expectedSteps = new ArrayList<>();
+        EnumSet<CompensationStep> expectedSteps = EnumSet.noneOf(CompensationStep.class);
 
         if (order.getReservationId() != null) {
             outboxService.enqueue(
@@ -292,7 +398,7 @@ public class OrderService {
                     order.getId(),
                     null,
                     "cancel-inv-" + order.getId() + "-" + System.currentTimeMillis());
-            expectedSteps.add("CANCEL_INVENTORY");
+            expectedSteps.add(CompensationStep.CANCEL_INVENTORY);
         }
         if (order.getPaymentId() != null) {
             outboxService.enqueue(
@@ -303,15 +409,15 @@ public class OrderService {
                     order.getId(),
                     null,
                     "void-pay-" + order.getId() + "-" + System.currentTimeMillis());
-            expectedSteps.add("VOID_PAYMENT");
+            expectedSteps.add(CompensationStep.VOID_PAYMENT);
         }
 
         initCompensationTracking(order.getId(), expectedSteps);
     }
 
     @Transactional
-    public void handleCompensationStepCompleted(UUID orderId, String completedStep) {
-        SagaState sagaState = sagaStateRepository.findByOrderId(orderId).orElse(null);
+    public void handleCompensationStepCompleted(UUID orderId, CompensationStep completedStep) {
+        SagaState sagaState = findSagaState(orderId).orElse(null);
         if (sagaState == null) {
             log.warn("No saga state found for compensation completion: orderId={}, step={}", orderId, completedStep);
             return;
@@ -322,18 +428,11 @@ public class OrderService {
             return;
         }
 
-        Map<String, Object> ctx = parseContext(sagaState);
-        @SuppressWarnings("unchecked")
-        List<String> completedSteps = (List<String>) ctx.computeIfAbsent("completedSteps", k -> new ArrayList<>());
-        if (!completedSteps.contains(completedStep)) {
-            completedSteps.add(completedStep);
-        }
-        sagaState.setContext(serializeContext(ctx));
+        SagaContext context = sagaContext(sagaState);
+        context.complete(completedStep);
         sagaStateRepository.save(sagaState);
 
-        @SuppressWarnings("unchecked")
-        List<String> expectedSteps = (List<String>) ctx.getOrDefault("expectedSteps", List.of());
-        if (completedSteps.containsAll(expectedSteps)) {
+        if (context.isComplete()) {
             log.info("All compensation steps completed for order {}, marking saga FAILED (terminal)", orderId);
             sagaState.setStatus(SagaStatus.FAILED);
             sagaState.setCurrentStep("COMPENSATION_DONE");
@@ -342,6 +441,7 @@ public class OrderService {
             OrderEntity order = findOrder(orderId);
             order.setSagaStatus(OrderSagaStatus.FAILED);
             orderRepository.save(order);
+            publishStatus(order, SagaProgressStep.COMPENSATED);
         }
     }
 
@@ -362,20 +462,11 @@ public class OrderService {
             return;
         }
 
-        Map<String, Object> ctx = parseContext(sagaState);
-        @SuppressWarnings("unchecked")
-        List<String> expectedSteps = (List<String>) ctx.getOrDefault("expectedSteps", List.of());
-        @SuppressWarnings("unchecked")
-        List<String> completedSteps = (List<String>) ctx.getOrDefault("completedSteps", List.of());
-
         String reason = order.getFailureReason() != null ? order.getFailureReason() : "compensation retry";
 
-        for (String step : expectedSteps) {
-            if (completedSteps.contains(step)) {
-                continue;
-            }
+        for (CompensationStep step : sagaContext(sagaState).pendingSteps()) {
             switch (step) {
-                case "CANCEL_INVENTORY" -> {
+                case CANCEL_INVENTORY -> {
                     if (order.getReservationId() != null) {
                         outboxService.enqueue(
                                 "ORDER",
@@ -387,7 +478,7 @@ public class OrderService {
                                 "cancel-inv-" + order.getId() + "-retry-" + sagaState.getRetryCount());
                     }
                 }
-                case "VOID_PAYMENT" -> {
+                case VOID_PAYMENT -> {
                     if (order.getPaymentId() != null) {
                         outboxService.enqueue(
                                 "ORDER",
@@ -399,26 +490,16 @@ public class OrderService {
                                 "void-pay-" + order.getId() + "-retry-" + sagaState.getRetryCount());
                     }
                 }
-                default -> log.warn("Unknown compensation step: {}", step);
             }
         }
 
         sagaState.setRetryCount(sagaState.getRetryCount() + 1);
         sagaState.setTimeoutAt(LocalDateTime.now().plusMinutes(compensationTimeoutMinutes));
         sagaStateRepository.save(sagaState);
+        scheduleTimeout(sagaState, SagaStatus.COMPENSATING);
         log.warn("Compensation retry {} for order {}", sagaState.getRetryCount(), orderId);
     }
 
-    @Transactional(readOnly = true)
-    public List<SagaState> findTimedOutSagas(LocalDateTime now) {
-        return sagaStateRepository.findByStatusAndTimeoutAtBefore(SagaStatus.RUNNING, now);
-    }
-
-    @Transactional(readOnly = true)
-    public List<SagaState> findStuckCompensatingSagas(LocalDateTime now) {
-        return sagaStateRepository.findByStatusAndTimeoutAtBefore(SagaStatus.COMPENSATING, now);
-    }
-
     @Transactional
     public void markSagaCompensating(UUID orderId, String reason) {
         OrderEntity order = findOrder(orderId);
@@ -426,14 +507,137 @@ public class OrderService {
         order.setFailureReason(reason);
         order.setStatus(OrderStatus.FAILED);
         orderRepository.save(order);
+        publishStatus(order, SagaProgressStep.COMPENSATING);
 
-        SagaState sagaState = sagaStateRepository.findByOrderId(orderId)
+        SagaState sagaState = findSagaState(orderId)
                 .orElseThrow(() -> new NotFoundException("Saga state not found for order " + orderId));
         sagaState.setStatus(SagaStatus.COMPENSATING);
         sagaState.setCurrentStep("COMPENSATION");
         sagaStateRepository.save(sagaState);
     }
 
+    /**
+     * Loads the saga rows of a batch of orders with one query and keeps them for the rest of the current
+     * transaction, so the per-event transitions resolve them without another round-trip.
+     */
+    public void prefetchSagaStates(Collection<UUID> orderIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || orderIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, SagaState> prefetched = prefetchedSagaStates();
+        if (prefetched == null) {
+            prefetched = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(SAGA_PREFETCH_KEY, prefetched);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SAGA_PREFETCH_KEY);
+                }
+            });
+        }
+        for (SagaState sagaState : sagaStateRepository.findByOrderIdIn(orderIds)) {
+            prefetched.put(sagaState.getOrderId(), sagaState);
+        }
+    }
+
+    private Optional<SagaState> findSagaState(UUID orderId) {
+        Map<UUID, SagaState> prefetched = prefetchedSagaStates();
+        if (prefetched != null && prefetched.containsKey(orderId)) {
+            return Optional.of(prefetched.get(orderId));
+        }
+        return sagaStateRepository.findByOrderId(orderId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, SagaState> prefetchedSagaStates() {
+        return (Map<UUID, SagaState>) TransactionSynchronizationManager.getResource(SAGA_PREFETCH_KEY);
+    }
+
+    /**
+     * Writes the order's status through to the projection once the transaction commits, when the version the
+     * commit assigned is known and the new state is visible to anyone reading the database.
+     */
+    private void publishStatus(OrderEntity order) {
+        afterCommit(() -> orderStatusStore.put(order));
+    }
+
+    /**
+     * Like {@link #publishStatus(OrderEntity)}, and also pushes {@code step} to progress subscribers. The event
+     * is captured now because a later transition in the same transaction may move the order on again.
+     */
+    private void publishStatus(OrderEntity order, SagaProgressStep step) {
+        SagaProgressEvent event = new SagaProgressEvent(order.getId(), step, order.getStatus(), order.getSagaStatus(),
+                order.getFailureReason(), Instant.now());
+        afterCommit(() -> {
+            orderStatusStore.put(order);
+            sagaProgressHub.publish(event);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Registers the saga's new deadline with the timing wheel once the transaction commits, so the timeout
+     * never fires against a row the handler cannot see yet.
+     */
+    private void scheduleTimeout(SagaState sagaState, SagaStatus status) {
+        UUID sagaId = sagaState.getId();
+        UUID orderId = sagaState.getOrderId();
+        LocalDateTime timeoutAt = sagaState.getTimeoutAt();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sagaTimeoutWheel.schedule(sagaId, orderId, status, timeoutAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sagaTimeoutWheel.schedule(sagaId, orderId, status, timeoutAt);
+            }
+        });
+    }
+
+    private List<OrderSummaryView> findHistoryPage(String userId, String cursor, int size) {
+        Limit limit = Limit.of(Math.min(Math.max(size, 1), historyMaxPageSize));
+        if (cursor == null || cursor.isBlank()) {
+            return orderRepository.findSummaryPage(userId, limit);
+        }
+        String[] position = decodeCursor(cursor);
+        return orderRepository.findSummaryPageBefore(userId, LocalDateTime.parse(position[0]),
+                UUID.fromString(position[1]), limit);
+    }
+
+    private String nextCursor(List<OrderSummaryView> page, int size) {
+        if (page.isEmpty() || page.size() < Math.min(Math.max(size, 1), historyMaxPageSize)) {
+            return null;
+        }
+        OrderSummaryView last = page.get(page.size() - 1);
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", 2);
+            LocalDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid order history cursor");
+        }
+    }
+
     private OrderEntity findOrder(UUID orderId) {
         return orderRepository.findById(orderId)
                 .orElseThrow(() -> new NotFoundException("Order not found: " + orderId));
@@ -445,37 +649,51 @@ public class OrderService {
         }
     }
 
-    private void initCompensationTracking(UUID orderId, List<String> expectedSteps) {
-        sagaStateRepository.findByOrderId(orderId).ifPresent(sagaState -> {
-            Map<String, Object> ctx = parseContext(sagaState);
-            ctx.put("expectedSteps", expectedSteps);
-            ctx.put("completedSteps", new ArrayList<>());
-            sagaState.setContext(serializeContext(ctx));
+    private void initCompensationTracking(UUID orderId, Collection<CompensationStep> expectedSteps) {
+        findSagaState(orderId).ifPresent(sagaState -> {
+            sagaState.setSagaContext(SagaContext.expecting(expectedSteps));
             sagaState.setTimeoutAt(LocalDateTime.now().plusMinutes(compensationTimeoutMinutes));
             sagaStateRepository.save(sagaState);
+            scheduleTimeout(sagaState, SagaStatus.COMPENSATING);
         });
     }
 
-    private Map<String, Object> parseContext(SagaState sagaState) {
+    private SagaContext sagaContext(SagaState sagaState) {
+        if (sagaState.getSagaContext() == null) {
+            sagaState.setSagaContext(legacySagaContext(sagaState));
+        }
+        return sagaState.getSagaContext();
+    }
+
+    /**
+     * Rows written before the step bitmask columns existed keep their steps in the jsonb context. They are
+     * converted once here and carry the bitmasks from their next save on.
+     */
+    private SagaContext legacySagaContext(SagaState sagaState) {
         try {
             String json = sagaState.getContext();
-            if (json == null || json.isBlank()) {
-                return new HashMap<>();
-            }
-            return objectMapper.readValue(json, new TypeReference<>() {});
+            JsonNode ctx = json == null || json.isBlank()
+                    ? objectMapper.createObjectNode()
+                    : objectMapper.readTree(json);
+            SagaContext context = SagaContext.expecting(legacySteps(ctx.path("expectedSteps")));
+            legacySteps(ctx.path("completedSteps")).forEach(context::complete);
+            return context;
         } catch (JsonProcessingException e) {
             log.warn("Failed to parse saga context for order {}: {}", sagaState.getOrderId(), e.getMessage());
-            return new HashMap<>();
+            return new SagaContext();
         }
     }
 
-    private String serializeContext(Map<String, Object> ctx) {
-        try {
-            return objectMapper.writeValueAsString(ctx);
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to serialize saga context: {}", e.getMessage());
-            return "{}";
+    private EnumSet<CompensationStep> legacySteps(JsonNode steps) {
+        EnumSet<CompensationStep> result = EnumSet.noneOf(CompensationStep.class);
+        for (JsonNode step : steps) {
+            try {
+                result.add(CompensationStep.valueOf(step.asText()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown compensation step {} in saga context", step.asText());
+            }
         }
+        return result;
     }
 
     private OrderResponse toResponse(OrderEntity order) {
@@ -0,0 +1,146 @@
+package com.shopping.order.service;
+
+import com.shopping.order.dto.OrderStatusResponse;
+import com.shopping.order.entity.OrderEntity;
+import com.shopping.order.enums.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis projection of each order's status, written through by {@link OrderService} after every transition
+ * commits. Entries carry the order's version and a write only lands if it is newer than the stored one, so
+ * replicas committing out of order and readers seeding a missing entry cannot roll the projection back.
+ *
+ * <p>Every accepted write is published on {@value #CHANNEL}; each replica wakes its own long-poll waiters
+ * for that order when the message arrives.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusStore implements MessageListener {
+
+    static final String CHANNEL = "order-status";
+    private static final String KEY_PREFIX = "order-status:";
+
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'version')
+            if current and tonumber(current) >= tonumber(ARGV[1]) then
+              return 0
+            end
+            redis.call('HSET', KEYS[1], 'version', ARGV[1], 'status', ARGV[2], 'sagaStatus', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            redis.call('PUBLISH', ARGV[5], ARGV[6])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.orders.status.ttl:1h}")
+    private Duration ttl;
+
+    private final Map<UUID, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Returns the projected status, or empty if there is none or Redis cannot be reached.
+     */
+    public Optional<OrderStatusResponse> get(UUID orderId) {
+        List<String> fields;
+        try {
+            fields = redisTemplate.<String, String>opsForHash().multiGet(key(orderId), List.of("status", "sagaStatus"));
+        } catch (RuntimeException e) {
+            log.warn("Status lookup of order {} failed, using the database: {}", orderId, e.getMessage());
+            return Optional.empty();
+        }
+        if (fields == null || fields.get(0) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrderStatusResponse(orderId, OrderStatus.valueOf(fields.get(0)),
+                fields.get(1), "OK"));
+    }
+
+    /**
+     * Stores the committed state of {@code order} unless a newer version is already there. Never throws: a
+     * failed write drops the entry so readers go back to the database instead of seeing a stale status.
+     */
+    public void put(OrderEntity order) {
+        String version = String.valueOf(order.getVersion() == null ? 0 : order.getVersion());
+        try {
+            redisTemplate.execute(PUT_SCRIPT, List.of(key(order.getId())), version, order.getStatus().name(),
+                    order.getSagaStatus().name(), String.valueOf(ttl.toMillis()), CHANNEL,
+                    order.getId().toString());
+        } catch (RuntimeException e) {
+            log.warn("Writing status of order {} failed: {}", order.getId(), e.getMessage());
+            evict(order.getId());
+        }
+    }
+
+    /**
+     * Completes when the projection of {@code orderId} changes on any replica, or after {@code timeout}.
+     * Register before reading the current status so a change in between is not missed.
+     */
+    public CompletableFuture<Void> awaitChange(UUID orderId, Duration timeout) {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.compute(orderId, (id, pending) -> {
+            Set<CompletableFuture<Void>> registered = pending == null ? ConcurrentHashMap.newKeySet() : pending;
+            registered.add(waiter);
+            return registered;
+        });
+        waiter.whenComplete((ignored, error) -> waiters.computeIfPresent(orderId, (id, pending) -> {
+            pending.remove(waiter);
+            return pending.isEmpty() ? null : pending;
+        }));
+        return waiter.completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        UUID orderId;
+        try {
+            orderId = UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        Set<CompletableFuture<Void>> pending = waiters.remove(orderId);
+        if (pending != null) {
+            pending.forEach(waiter -> waiter.complete(null));
+        }
+    }
+
+    private void evict(UUID orderId) {
+        try {
+            redisTemplate.delete(key(orderId));
+        } catch (RuntimeException e) {
+            log.warn("Evicting status of order {} failed, entry expires within {}", orderId, ttl);
+        }
+    }
+
+    private String key(UUID orderId) {
+        return KEY_PREFIX + orderId;
+    }
+}
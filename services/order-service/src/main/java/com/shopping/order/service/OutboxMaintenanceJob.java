@@ -0,0 +1,81 @@
+package com.shopping.order.service;
+
+import com.shopping.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@code outbox_events} small: deletes published rows past the retention window in bounded batches
+ * and exposes the unpublished backlog size and age as gauges.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxMaintenanceJob {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong backlogSize = new AtomicLong();
+    private final AtomicLong backlogAgeSeconds = new AtomicLong();
+    private Counter prunedCounter;
+
+    @Value("${app.outbox.retention.published:72h}")
+    private Duration retention;
+
+    @Value("${app.outbox.retention.batch-size:1000}")
+    private int pruneBatchSize;
+
+    @Value("${app.outbox.retention.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("outbox.backlog.size", backlogSize, AtomicLong::get)
+                .description("Unpublished outbox events")
+                .register(meterRegistry);
+        Gauge.builder("outbox.backlog.age", backlogAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        prunedCounter = Counter.builder("outbox.pruned")
+                .description("Published outbox events deleted by retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.retention.metrics-interval-ms:15000}")
+    public void refreshBacklogMetrics() {
+        backlogSize.set(outboxEventRepository.countByPublishedFalse());
+        LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt();
+        backlogAgeSeconds.set(oldest == null
+                ? 0
+                : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.retention.prune-interval-ms:60000}")
+    public void prunePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = outboxEventRepository.deletePublishedBefore(cutoff, pruneBatchSize);
+            total += deleted;
+            if (deleted < pruneBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            prunedCounter.increment(total);
+            log.info("Pruned {} published outbox events older than {}", total, cutoff);
+        }
+    }
+}
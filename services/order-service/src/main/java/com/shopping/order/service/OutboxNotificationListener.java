@@ -0,0 +1,107 @@
+package com.shopping.order.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds a dedicated connection in LISTEN mode and drains the outbox as soon as a committing transaction
+ * sends NOTIFY. The scheduled sweep in {@link OutboxPublisher} stays active as a fallback for missed
+ * notifications and reconnect windows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.notify.enabled", havingValue = "true")
+public class OutboxNotificationListener implements SmartLifecycle {
+
+    private final DataSource dataSource;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${app.outbox.notify.channel:outbox_events}")
+    private String channel;
+
+    @Value("${app.outbox.notify.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${app.outbox.notify.reconnect-backoff-ms:5000}")
+    private long reconnectBackoffMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::listen, "outbox-notify-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for outbox notifications on channel {}", channel);
+
+                // Pick up anything committed while no listener was attached.
+                drainQuietly();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        drainQuietly();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox listener connection failed, reconnecting in {} ms: {}",
+                        reconnectBackoffMs, e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            outboxPublisher.drain();
+        } catch (RuntimeException e) {
+            log.warn("Outbox drain triggered by notification failed, sweep will retry: {}", e.getMessage());
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopping.order.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxNotifier {
+
+    private static final Object NOTIFY_PENDING_KEY = OutboxNotifier.class.getName() + ".pending";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.outbox.notify.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.outbox.notify.channel:outbox_events}")
+    private String channel;
+
+    /**
+     * Signals the outbox relay that new rows are pending. PostgreSQL holds the notification until the
+     * surrounding transaction commits; inside a transaction the NOTIFY is issued once, right before
+     * commit, however many events were enqueued.
+     */
+    public void notifyPending() {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendNotify();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(NOTIFY_PENDING_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(NOTIFY_PENDING_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sendNotify();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(NOTIFY_PENDING_KEY);
+            }
+        });
+    }
+
+    private void sendNotify() {
+        jdbcTemplate.execute("NOTIFY " + channel);
+    }
+}
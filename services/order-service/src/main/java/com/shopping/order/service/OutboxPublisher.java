@@ -6,15 +6,22 @@ import com.shopping.order.support.TopicRouter;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Component
@@ -25,33 +32,121 @@ public class OutboxPublisher {
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final TopicRouter topicRouter;
     private final Tracer tracer;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.outbox.batch-size:100}")
     private int batchSize;
 
-    @Transactional
+    @Value("${app.outbox.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    @Value("${app.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
     @Scheduled(fixedDelayString = "${app.outbox.publish-interval-ms:2000}")
     public void publishPendingEvents() {
-        List<OutboxEvent> events = outboxEventRepository
-                .findByPublishedFalseOrderByCreatedAtAsc(PageRequest.of(0, batchSize));
+        drain();
+    }
+
+    /**
+     * Publishes pages until nothing is claimable, a page is only partly acknowledged or
+     * {@code max-batches-per-run} pages went out. Used by the notification listener so a burst of commits is
+     * flushed right away. The cap keeps a large backlog from holding the shared scheduler thread; the next
+     * sweep continues where this one stopped. Pages are claimed with SKIP LOCKED, so the sweep, the listener
+     * and other replicas can drain concurrently.
+     */
+    public void drain() {
+        // a short page still ends with another claim: publishing an order's oldest event is what makes its
+        // next one claimable
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (!publishBatch()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the page claimed events and every one of them was acknowledged.
+     */
+    private boolean publishBatch() {
+        PageResult page = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.claimBatch(batchSize);
+            if (events.isEmpty()) {
+                return new PageResult(0, false);
+            }
+            List<UUID> acknowledged = sendAll(events);
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.markPublished(acknowledged, LocalDateTime.now());
+            }
+            if (acknowledged.size() < events.size()) {
+                log.warn("{} of {} outbox events were not acknowledged, will retry",
+                        events.size() - acknowledged.size(), events.size());
+            }
+            return new PageResult(acknowledged.size(), acknowledged.size() == events.size());
+        });
+        if (page == null) {
+            return false;
+        }
+        if (page.published() > 0) {
+            log.info("Published {} outbox events", page.published());
+        }
+        return page.complete();
+    }
+
+    /**
+     * Sends the whole page without waiting per record, then collects the broker acks. A row only counts
+     * as published when its own send and every earlier send for the same aggregate were acknowledged,
+     * so a failed event is never overtaken by a later one for the same order.
+     */
+    private List<UUID> sendAll(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> acks = new ArrayList<>(events.size());
         for (OutboxEvent event : events) {
-            publishWithTrace(event);
+            acks.add(publishWithTrace(event));
         }
-        if (!events.isEmpty()) {
-            log.info("Published {} outbox events", events.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        Set<UUID> failedAggregates = new HashSet<>();
+        List<UUID> acknowledged = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            boolean acked = awaitAck(event, acks.get(i), deadline);
+            if (acked && !failedAggregates.contains(event.getAggregateId())) {
+                acknowledged.add(event.getId());
+            } else {
+                failedAggregates.add(event.getAggregateId());
+            }
         }
+        return acknowledged;
     }
 
-    private void publishWithTrace(OutboxEvent event) {
+    private boolean awaitAck(OutboxEvent event, CompletableFuture<?> ack, long deadline) {
+        try {
+            ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox event {} was not acknowledged: {}", event.getId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<?> publishWithTrace(OutboxEvent event) {
         String topic = topicRouter.route(event.getEventType());
         Span span = buildSpan(event, topic);
         try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
-            kafkaTemplate.send(topic, event.getAggregateId().toString(), event.getPayload());
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
-        } finally {
+            return kafkaTemplate.send(topic, event.getAggregateId().toString(), event.getPayload())
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            span.error(ex);
+                        }
+                        span.end();
+                    });
+        } catch (RuntimeException e) {
+            span.error(e);
             span.end();
+            return CompletableFuture.failedFuture(e);
         }
     }
 
@@ -81,4 +176,7 @@ public class OutboxPublisher {
 
         return builder.start();
     }
+
+    private record PageResult(int published, boolean complete) {
+    }
 }
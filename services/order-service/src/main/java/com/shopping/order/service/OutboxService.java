@@ -21,6 +21,7 @@ public class OutboxService {
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
     private final Tracer tracer;
+    private final OutboxNotifier outboxNotifier;
 
     public void enqueue(
             String aggregateType,
@@ -55,6 +56,7 @@ public class OutboxService {
         outboxEvent.setIdempotencyKey(idempotencyKey);
         outboxEvent.setTraceparent(currentTraceparent());
         outboxEventRepository.save(outboxEvent);
+        outboxNotifier.notifyPending();
     }
 
     private String currentTraceparent() {
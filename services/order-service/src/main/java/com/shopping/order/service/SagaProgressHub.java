@@ -0,0 +1,142 @@
+package com.shopping.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.dto.OrderStatusResponse;
+import com.shopping.order.dto.SagaProgressEvent;
+import com.shopping.order.enums.OrderSagaStatus;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans saga progress out to the SSE subscribers of this replica. A transition committed here is delivered
+ * directly and also published on the progress topic, which every replica reads with its own consumer group so
+ * subscribers connected elsewhere see it too; a replica skips the copies it published itself. The group is
+ * named after {@code spring.application.instance-id}, so a restarted replica rejoins it rather than leaving
+ * an orphaned group behind.
+ *
+ * <p>Progress messages are notifications, not state: a subscriber first receives the order's current status
+ * and then the transitions that follow, and one that reconnects starts again from the current status.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaProgressHub {
+
+    static final String STATUS_EVENT = "status";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${app.kafka.topics.order-progress:order.progress}")
+    private String topic;
+
+    @Value("${app.orders.events.timeout:10m}")
+    private Duration timeout;
+
+    /**
+     * Opens a stream for {@code orderId}. The subscriber is registered before {@code currentStatus} is read, so
+     * a transition committed in between is not lost; a finished saga gets its status and an immediate close.
+     */
+    public SseEmitter subscribe(UUID orderId, Supplier<OrderStatusResponse> currentStatus) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribers.compute(orderId, (id, emitters) -> {
+            Set<SseEmitter> registered = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+            registered.add(emitter);
+            return registered;
+        });
+        emitter.onCompletion(() -> unsubscribe(orderId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(orderId, emitter));
+
+        OrderStatusResponse current;
+        try {
+            current = currentStatus.get();
+        } catch (RuntimeException e) {
+            unsubscribe(orderId, emitter);
+            throw e;
+        }
+        send(orderId, emitter, STATUS_EVENT, current, isFinished(current.getSagaStatus()));
+        return emitter;
+    }
+
+    public void publish(SagaProgressEvent event) {
+        deliver(event);
+        try {
+            kafkaTemplate.send(topic, event.orderId().toString(),
+                    objectMapper.writeValueAsString(new ProgressMessage(instanceId, event)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Publishing progress of order {} to other replicas failed: {}", event.orderId(), e.getMessage());
+        }
+    }
+
+    @KafkaListener(
+            topics = "${app.kafka.topics.order-progress:order.progress}",
+            groupId = "order-progress-${spring.application.instance-id:${HOSTNAME:local}}",
+            properties = "auto.offset.reset=latest")
+    public void onProgressMessage(String payload) {
+        ProgressMessage message;
+        try {
+            message = objectMapper.readValue(payload, ProgressMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable progress message: {}", e.getMessage());
+            return;
+        }
+        if (!instanceId.equals(message.source())) {
+            deliver(message.event());
+        }
+    }
+
+    void deliver(SagaProgressEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.orderId());
+        if (emitters == null) {
+            return;
+        }
+        boolean finished = isFinished(event.sagaStatus().name());
+        for (SseEmitter emitter : emitters) {
+            send(event.orderId(), emitter, event.step().name(), event, finished);
+        }
+    }
+
+    private void send(UUID orderId, SseEmitter emitter, String name, Object data, boolean last) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            if (last) {
+                emitter.complete();
+                unsubscribe(orderId, emitter);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping progress subscriber of order {}: {}", orderId, e.getMessage());
+            unsubscribe(orderId, emitter);
+        }
+    }
+
+    private void unsubscribe(UUID orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private boolean isFinished(String sagaStatus) {
+        return OrderSagaStatus.COMPLETED.name().equals(sagaStatus) || OrderSagaStatus.FAILED.name().equals(sagaStatus);
+    }
+
+    private record ProgressMessage(String source, SagaProgressEvent event) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.shopping.order.service;
+
+import com.shopping.order.enums.SagaStatus;
+import com.shopping.order.repository.SagaStateRepository;
+import com.shopping.order.repository.SagaTimeoutView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hashed timing wheel for saga timeouts. Scheduling is an O(1) enqueue; a single ticker thread moves new
+ * timeouts into their slots and fires the ones that are due, within one tick of their deadline.
+ *
+ * <p>Fired timeouts are only hints: the handler re-checks the saga row, so a timeout that was pushed back or
+ * whose saga finished in the meantime does nothing. Nothing is persisted here either; the wheel is rebuilt
+ * from {@code saga_state} on start, and {@link StuckSagaReaper}'s table sweep still catches anything missed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaTimeoutWheel implements SmartLifecycle {
+
+    private static final List<SagaStatus> ACTIVE_STATUSES = List.of(SagaStatus.RUNNING, SagaStatus.COMPENSATING);
+
+    private final SagaStateRepository sagaStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.saga.timeout-wheel.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.saga.timeout-wheel.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.saga.timeout-wheel.slots:512}")
+    private int slots;
+
+    private final Queue<SagaTimeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Consumer<SagaTimeout> expiryHandler = timeout -> { };
+    private volatile boolean running;
+
+    private ArrayDeque<Entry>[] wheel;
+    private long startNanos;
+    private Thread ticker;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("saga.timeouts.pending", pending, AtomicInteger::get)
+                .description("Saga timeouts waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    public void setExpiryHandler(Consumer<SagaTimeout> expiryHandler) {
+        this.expiryHandler = expiryHandler;
+    }
+
+    public void schedule(UUID sagaId, UUID orderId, SagaStatus status, LocalDateTime timeoutAt) {
+        if (!enabled || timeoutAt == null) {
+            return;
+        }
+        scheduled.add(new SagaTimeout(sagaId, orderId, status, timeoutAt));
+        pending.incrementAndGet();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int size = Integer.highestOneBit(Math.max(slots, 2) - 1) << 1;
+        wheel = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        startNanos = System.nanoTime();
+        try {
+            log.info("Saga timeout wheel started with {} timeouts restored from saga_state", rebuild());
+        } catch (RuntimeException e) {
+            log.warn("Could not restore saga timeouts, relying on the reaper sweep until they are rescheduled: {}",
+                    e.getMessage());
+        }
+
+        running = true;
+        ticker = new Thread(this::run, "saga-timeout-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Already overdue sagas are left to the paged sweep rather than fired all at once.
+    private int rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer restored = transactionTemplate.execute(status -> {
+            try (Stream<SagaTimeoutView> timeouts = sagaStateRepository.streamPendingTimeouts(ACTIVE_STATUSES, now)) {
+                AtomicInteger count = new AtomicInteger();
+                timeouts.forEach(timeout -> {
+                    schedule(timeout.getId(), timeout.getOrderId(), timeout.getStatus(), timeout.getTimeoutAt());
+                    count.incrementAndGet();
+                });
+                return count.get();
+            }
+        });
+        return restored == null ? 0 : restored;
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long tickDeadline = startNanos + TimeUnit.MILLISECONDS.toNanos((tick + 1) * tickMs);
+            long sleep;
+            while (running && (sleep = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+            try {
+                transferScheduled(tick);
+                expire(wheel[(int) (tick & (wheel.length - 1))]);
+            } catch (RuntimeException e) {
+                log.error("Saga timeout wheel tick failed", e);
+            }
+            tick++;
+        }
+    }
+
+    private void transferScheduled(long currentTick) {
+        SagaTimeout timeout;
+        long nowNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        while ((timeout = scheduled.poll()) != null) {
+            long delayNanos = Math.max(0, Duration.between(now, timeout.timeoutAt()).toNanos());
+            long deadlineTick = Math.max(currentTick,
+                    (nowNanos + delayNanos - startNanos + TimeUnit.MILLISECONDS.toNanos(tickMs) - 1)
+                            / TimeUnit.MILLISECONDS.toNanos(tickMs));
+            long rounds = (deadlineTick - currentTick) / wheel.length;
+            wheel[(int) (deadlineTick & (wheel.length - 1))].add(new Entry(timeout, rounds));
+        }
+    }
+
+    private void expire(ArrayDeque<Entry> bucket) {
+        Iterator<Entry> entries = bucket.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+                continue;
+            }
+            entries.remove();
+            pending.decrementAndGet();
+            try {
+                expiryHandler.accept(entry.timeout);
+            } catch (RuntimeException e) {
+                log.warn("Saga timeout handler failed for order {}: {}", entry.timeout.orderId(), e.getMessage());
+            }
+        }
+    }
+
+    public record SagaTimeout(UUID sagaId, UUID orderId, SagaStatus status, LocalDateTime timeoutAt) {
+    }
+
+    private static final class Entry {
+
+        private final SagaTimeout timeout;
+        private long remainingRounds;
+
+        Entry(SagaTimeout timeout, long remainingRounds) {
+            this.timeout = timeout;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+}
@@ -2,16 +2,36 @@ package com.shopping.order.service;
 
 import com.shopping.order.entity.OrderEntity;
 import com.shopping.order.entity.SagaState;
+import com.shopping.order.enums.SagaStatus;
 import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.repository.SagaStateRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Handles saga timeouts fired by {@link SagaTimeoutWheel} and, as a coarse safety net, scans timed-out sagas
+ * page by page along {@code (status, timeout_at, id)}. Either way each saga goes to a bounded worker pool, is
+ * claimed with {@code FOR UPDATE SKIP LOCKED} and is handled in its own short transaction, so replicas can
+ * reap side by side and one failure does not roll back the rest.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -19,45 +39,123 @@ public class StuckSagaReaper {
 
     private final OrderService orderService;
     private final OrderRepository orderRepository;
+    private final SagaStateRepository sagaStateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SagaTimeoutWheel sagaTimeoutWheel;
 
-    @Transactional
-    @Scheduled(fixedDelayString = "${app.saga.reaper-interval-ms:10000}")
+    @Value("${app.saga.reaper.page-size:200}")
+    private int pageSize;
+
+    @Value("${app.saga.reaper.max-pages-per-run:50}")
+    private int maxPagesPerRun;
+
+    @Value("${app.saga.reaper.workers:4}")
+    private int workers;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "saga-reaper-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sagaTimeoutWheel.setExpiryHandler(this::onTimeout);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.saga.reaper-interval-ms:60000}")
     public void reapTimedOutSagas() {
         LocalDateTime now = LocalDateTime.now();
 
         // 1. Handle RUNNING sagas that timed out — trigger compensation
-        List<SagaState> timedOutRunning = orderService.findTimedOutSagas(now);
-        for (SagaState sagaState : timedOutRunning) {
-            try {
-                OrderEntity order = orderRepository.findById(sagaState.getOrderId()).orElse(null);
-                if (order == null) {
-                    continue;
-                }
-                String reason = "Saga timeout while in step " + sagaState.getCurrentStep();
-                orderService.createCompensationCommands(order, reason);
-                orderService.markSagaCompensating(order.getId(), reason);
-                log.warn("Compensation triggered for timed out order {}", order.getId());
-            } catch (ObjectOptimisticLockingFailureException e) {
-                log.warn("Optimistic lock conflict for timed out order {}, will retry next cycle: {}",
-                        sagaState.getOrderId(), e.getMessage());
+        reap(SagaStatus.RUNNING, now, this::compensateTimedOut);
+
+        // 2. Handle COMPENSATING sagas that timed out — retry compensation
+        reap(SagaStatus.COMPENSATING, now, this::retryStuckCompensation);
+    }
+
+    /**
+     * Handles a timeout fired by the wheel on the worker pool. The claim re-checks the row, so timeouts that
+     * were extended or belong to finished sagas are dropped there.
+     */
+    private void onTimeout(SagaTimeoutWheel.SagaTimeout timeout) {
+        Consumer<SagaState> handler = timeout.status() == SagaStatus.RUNNING
+                ? this::compensateTimedOut
+                : this::retryStuckCompensation;
+        executor.submit(() -> reapOne(timeout.sagaId(), timeout.orderId(), timeout.status(), LocalDateTime.now(),
+                handler));
+    }
+
+    private void reap(SagaStatus status, LocalDateTime now, Consumer<SagaState> handler) {
+        SagaState last = null;
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<SagaState> sagas = last == null
+                    ? sagaStateRepository.findTimedOutPage(status, now, Limit.of(pageSize))
+                    : sagaStateRepository.findTimedOutPageAfter(
+                            status, now, last.getTimeoutAt(), last.getId(), Limit.of(pageSize));
+            if (sagas.isEmpty()) {
+                return;
+            }
+
+            List<Future<?>> handled = new ArrayList<>(sagas.size());
+            for (SagaState saga : sagas) {
+                handled.add(executor.submit(() -> reapOne(saga.getId(), saga.getOrderId(), status, now, handler)));
+            }
+            if (!awaitAll(handled) || sagas.size() < pageSize) {
+                return;
             }
+            last = sagas.get(sagas.size() - 1);
         }
+    }
 
-        // 2. Handle COMPENSATING sagas that timed out — retry compensation
-        List<SagaState> stuckCompensating = orderService.findStuckCompensatingSagas(now);
-        for (SagaState sagaState : stuckCompensating) {
+    private void reapOne(UUID sagaId, UUID orderId, SagaStatus status, LocalDateTime now,
+                         Consumer<SagaState> handler) {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    sagaStateRepository.claimTimedOut(sagaId, status.name(), now).ifPresent(handler));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Optimistic lock conflict for {} order {}, will retry next cycle: {}",
+                    status, orderId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to reap {} saga for order {}, will retry next cycle", status, orderId, e);
+        }
+    }
+
+    private void compensateTimedOut(SagaState sagaState) {
+        OrderEntity order = orderRepository.findById(sagaState.getOrderId()).orElse(null);
+        if (order == null) {
+            return;
+        }
+        String reason = "Saga timeout while in step " + sagaState.getCurrentStep();
+        orderService.createCompensationCommands(order, reason);
+        orderService.markSagaCompensating(order.getId(), reason);
+        log.warn("Compensation triggered for timed out order {}", order.getId());
+    }
+
+    private void retryStuckCompensation(SagaState sagaState) {
+        log.warn("Retrying stuck compensation for order {} (attempt {})",
+                sagaState.getOrderId(), sagaState.getRetryCount() + 1);
+        orderService.retryCompensation(sagaState);
+    }
+
+    private boolean awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
             try {
-                if ("COMPENSATION_DONE".equals(sagaState.getCurrentStep())
-                        || "COMPENSATION_EXHAUSTED".equals(sagaState.getCurrentStep())) {
-                    continue;
-                }
-                log.warn("Retrying stuck compensation for order {} (attempt {})",
-                        sagaState.getOrderId(), sagaState.getRetryCount() + 1);
-                orderService.retryCompensation(sagaState);
-            } catch (ObjectOptimisticLockingFailureException e) {
-                log.warn("Optimistic lock conflict for compensating order {}, will retry next cycle: {}",
-                        sagaState.getOrderId(), e.getMessage());
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                log.error("Saga reaper worker failed", e.getCause());
             }
         }
+        return true;
     }
 }
@@ -0,0 +1,105 @@
+package com.shopping.order.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchLoaderTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @InjectMocks
+    private ProductBatchLoader productBatchLoader;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productBatchLoader, "windowMs", 50L);
+        ReflectionTestUtils.setField(productBatchLoader, "maxBatchSize", 200);
+        ReflectionTestUtils.setField(productBatchLoader, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(productBatchLoader, "maxConcurrentCalls", 2);
+        productBatchLoader.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productBatchLoader.stop();
+    }
+
+    @Test
+    @DisplayName("동시 조회 요청은 하나의 배치 호출로 병합")
+    void concurrentLookups_CoalescedIntoOneCall() throws Exception {
+        // given
+        UUID shared = UUID.randomUUID();
+        List<UUID> ids = List.of(shared, UUID.randomUUID(), UUID.randomUUID());
+        when(productServiceClient.getProducts(anyList())).thenAnswer(inv -> {
+            Collection<UUID> requested = inv.getArgument(0);
+            return requested.stream().map(this::product).toList();
+        });
+
+        // when
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<UUID, ProductDto>>> results = new ArrayList<>();
+        for (UUID id : ids) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return productBatchLoader.getProducts(List.of(id, shared));
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (int i = 0; i < ids.size(); i++) {
+            Map<UUID, ProductDto> products = results.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(products).containsOnlyKeys(ids.get(i), shared);
+        }
+        callers.shutdown();
+        verify(productServiceClient, times(1)).getProducts(anyList());
+    }
+
+    @Test
+    @DisplayName("상품 서비스 장애 시 빈 결과로 대체")
+    void batchFailure_ReturnsMissingEntries() {
+        // given
+        UUID productId = UUID.randomUUID();
+        when(productServiceClient.getProducts(anyList())).thenThrow(new IllegalStateException("unavailable"));
+
+        // when
+        Map<UUID, ProductDto> products = productBatchLoader.getProducts(List.of(productId));
+
+        // then
+        assertThat(products).isEmpty();
+    }
+
+    private ProductDto product(UUID id) {
+        ProductDto product = new ProductDto();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setBasePrice(1000);
+        return product;
+    }
+}
@@ -0,0 +1,102 @@
+package com.shopping.order.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock
+    private ProductBatchLoader productBatchLoader;
+
+    private MeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private UUID productId;
+    private ProductDto product;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(productBatchLoader, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(productCache, "maxSize", 2);
+        ReflectionTestUtils.setField(productCache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(productCache, "maxStale", Duration.ofHours(1));
+        productCache.init();
+
+        productId = UUID.randomUUID();
+        product = new ProductDto();
+        product.setId(productId);
+        product.setName("Test Product");
+        product.setBasePrice(1000);
+    }
+
+    @Test
+    @DisplayName("캐시된 상품은 원격 호출 없이 반환")
+    void cachedProduct_ServedLocally() {
+        // given
+        when(productBatchLoader.getProducts(List.of(productId))).thenReturn(Map.of(productId, product));
+
+        // when
+        productCache.getProducts(List.of(productId));
+        Map<UUID, ProductDto> products = productCache.getProducts(List.of(productId));
+
+        // then
+        assertThat(products).containsEntry(productId, product);
+        verify(productBatchLoader, times(1)).getProducts(List.of(productId));
+        assertThat(meterRegistry.get("product.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("상품 이벤트 수신 시 캐시 무효화")
+    void productEvent_InvalidatesEntry() {
+        // given
+        when(productBatchLoader.getProducts(List.of(productId))).thenReturn(Map.of(productId, product));
+        productCache.getProducts(List.of(productId));
+
+        // when
+        productCache.onProductEvent("{\"eventType\":\"ProductCreatedEvent\",\"productId\":\"" + productId + "\"}");
+        productCache.getProducts(List.of(productId));
+
+        // then
+        verify(productBatchLoader, times(2)).getProducts(List.of(productId));
+        assertThat(meterRegistry.get("product.cache.evictions").tag("cause", "invalidated").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("갱신 실패 시 만료된 항목으로 대체")
+    void failedRefresh_ServesStaleEntry() {
+        // given
+        when(productBatchLoader.getProducts(List.of(productId)))
+                .thenReturn(Map.of(productId, product))
+                .thenReturn(Map.of());
+        productCache.getProducts(List.of(productId));
+        ReflectionTestUtils.setField(productCache, "ttl", Duration.ZERO);
+
+        // when
+        Map<UUID, ProductDto> products = productCache.getProducts(List.of(productId));
+
+        // then
+        assertThat(products).containsEntry(productId, product);
+        assertThat(meterRegistry.get("product.cache.requests").tag("result", "stale").counter().count())
+                .isEqualTo(1.0);
+    }
+}
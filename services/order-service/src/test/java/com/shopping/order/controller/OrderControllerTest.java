@@ -3,19 +3,26 @@ package com.shopping.order.controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopping.order.dto.ApproveOrderRequest;
+import com.shopping.order.dto.OrderHistoryPage;
 import com.shopping.order.dto.OrderResponse;
 import com.shopping.order.dto.OrderStatusResponse;
+import com.shopping.order.dto.OrderSummaryResponse;
 import com.shopping.order.enums.OrderSagaStatus;
 import com.shopping.order.enums.OrderStatus;
 import com.shopping.order.service.OrderService;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +30,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(OrderController.class)
 class OrderControllerTest {
@@ -56,6 +64,51 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDING_APPROVAL"));
     }
 
+    @Test
+    @DisplayName("사용자 주문 이력 API - 다음 커서는 헤더로 전달")
+    void getOrdersByUser_Api() throws Exception {
+        // given
+        UUID orderId = UUID.randomUUID();
+        OrderSummaryResponse summary = OrderSummaryResponse.builder()
+                .id(orderId)
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(10000)
+                .build();
+
+        when(orderService.getOrderSummariesByUser("user-1", null, 1))
+                .thenReturn(new OrderHistoryPage<>(List.of(summary), "next-page"));
+
+        // when & then
+        mockMvc.perform(get("/api/orders/user/{userId}/summary", "user-1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
+                .andExpect(jsonPath("$[0].id").value(orderId.toString()))
+                .andExpect(jsonPath("$[0].items").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("주문 상태 롱폴링 API")
+    void getOrderStatus_LongPoll_Api() throws Exception {
+        // given
+        UUID orderId = UUID.randomUUID();
+        OrderStatusResponse response = new OrderStatusResponse(orderId, OrderStatus.PAYMENT_AUTHORIZING,
+                OrderSagaStatus.RUNNING.name(), "OK");
+        when(orderService.awaitOrderStatus(orderId, OrderStatus.INVENTORY_RESERVING, 5000))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        // when
+        MvcResult result = mockMvc.perform(get("/api/orders/{id}/status", orderId)
+                        .param("seen", "INVENTORY_RESERVING")
+                        .param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAYMENT_AUTHORIZING"));
+    }
+
     @Test
     @DisplayName("주문 승인 API")
     void approve_Api() throws Exception {
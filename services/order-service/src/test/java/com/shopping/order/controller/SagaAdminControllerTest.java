@@ -0,0 +1,36 @@
+package com.shopping.order.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.shopping.order.saga.SagaDeadLetterReplayer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(SagaAdminController.class)
+class SagaAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SagaDeadLetterReplayer sagaDeadLetterReplayer;
+
+    @Test
+    @DisplayName("DLQ 재처리 API")
+    void replayDeadLetters_Api() throws Exception {
+        // given
+        when(sagaDeadLetterReplayer.replay(50)).thenReturn(3);
+
+        // when & then
+        mockMvc.perform(post("/internal/saga/dead-letters/replay").param("max", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(3));
+    }
+}
@@ -1,15 +1,29 @@
 package com.shopping.order.saga;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.entity.OrderEntity;
 import com.shopping.order.repository.IdempotencyRecordRepository;
 import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.service.IdempotencyFilter;
 import com.shopping.order.service.OrderService;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +31,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class SagaOrchestratorTest {
@@ -33,9 +53,29 @@ class SagaOrchestratorTest {
     @Mock
     private IdempotencyRecordRepository idempotencyRecordRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private IdempotencyFilter idempotencyFilter;
+
+    @Mock
+    private SagaRetryRouter sagaRetryRouter;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
     @InjectMocks
     private SagaOrchestrator sagaOrchestrator;
 
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
     @Test
     @DisplayName("재고 예약 성공 이벤트 처리")
     void onInventoryReserved_Success() {
@@ -47,14 +87,14 @@ class SagaOrchestratorTest {
                 "{\"meta\": {\"eventType\": \"InventoryReserved\", \"eventId\": \"%s\"}, \"data\": {\"orderId\": \"%s\", \"reservationId\": \"%s\"}}",
                 eventId, orderId, reservationId);
 
-        when(idempotencyRecordRepository.existsById(any())).thenReturn(false);
-
         // when
-        sagaOrchestrator.onInventoryEvents(payload);
+        sagaOrchestrator.onInventoryEvents(List.of(record("inventory.events", payload)));
 
         // then
         verify(orderService).moveToPaymentAuthorizing(eq(orderId), eq(reservationId));
-        verify(idempotencyRecordRepository).save(any());
+        verify(idempotencyRecordRepository, never()).findProcessedEventIds(any(), anyCollection());
+        verify(idempotencyRecordRepository).saveAll(any());
+        verify(idempotencyFilter).put(any(), eq(eventId));
     }
 
     @Test
@@ -68,12 +108,136 @@ class SagaOrchestratorTest {
                 "{\"meta\": {\"eventType\": \"PaymentAuthorized\", \"eventId\": \"%s\"}, \"data\": {\"orderId\": \"%s\", \"paymentId\": \"%s\"}}",
                 eventId, orderId, paymentId);
 
-        when(idempotencyRecordRepository.existsById(any())).thenReturn(false);
-
         // when
-        sagaOrchestrator.onPaymentEvents(payload);
+        sagaOrchestrator.onPaymentEvents(List.of(record("payment.events", payload)));
 
         // then
         verify(orderService).handlePaymentAuthorized(eq(orderId), eq(paymentId));
     }
+
+    @Test
+    @DisplayName("배치 처리 - 조회는 한 번씩, 이미 처리했거나 중복된 이벤트는 건너뜀")
+    void onPaymentEvents_BatchPrefetchAndSkipDuplicates() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        UUID processedEventId = UUID.randomUUID();
+        UUID newEventId = UUID.randomUUID();
+        String processed = captured(processedEventId, orderId);
+        String fresh = captured(newEventId, orderId);
+
+        when(idempotencyFilter.mightBeProcessed(any(), anyCollection())).thenReturn(List.of(processedEventId));
+        when(idempotencyRecordRepository.findProcessedEventIds(any(), eq(List.of(processedEventId))))
+                .thenReturn(List.of(processedEventId));
+
+        // when
+        sagaOrchestrator.onPaymentEvents(List.of(
+                record("payment.events", processed),
+                record("payment.events", fresh),
+                record("payment.events", fresh)));
+
+        // then
+        verify(idempotencyRecordRepository, times(1)).findProcessedEventIds(any(), anyCollection());
+        verify(orderRepository, times(1)).findAllById(anyCollection());
+        verify(orderService, times(1)).prefetchSagaStates(anyCollection());
+        verify(orderService, times(1)).markConfirmed(orderId);
+    }
+
+    @Test
+    @DisplayName("잘못된 페이로드는 DLQ로 보내고 나머지 이벤트는 계속 처리")
+    void onPaymentEvents_InvalidPayloadDeadLettered() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        ConsumerRecord<String, String> poison = record("payment.events", "not-json");
+
+        // when
+        sagaOrchestrator.onPaymentEvents(List.of(
+                record("payment.events", captured(UUID.randomUUID(), orderId)),
+                poison));
+
+        // then
+        verify(sagaRetryRouter).deadLetter(eq(poison), any(IllegalStateException.class));
+        verify(orderService).markConfirmed(orderId);
+        verify(orderService, never()).markFailed(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("처리 실패한 이벤트는 재시도 토픽으로, 같은 주문의 후속 이벤트도 함께 이동")
+    void onPaymentEvents_FailedEventRerouted() {
+        // given
+        UUID failing = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException(OrderEntity.class, failing);
+        doThrow(conflict).when(orderService).markConfirmed(failing);
+        ConsumerRecord<String, String> first = record("payment.events", captured(UUID.randomUUID(), failing));
+        ConsumerRecord<String, String> second = record("payment.events", captured(UUID.randomUUID(), failing));
+
+        // when
+        sagaOrchestrator.onPaymentEvents(List.of(
+                first,
+                record("payment.events", captured(UUID.randomUUID(), other)),
+                second));
+
+        // then
+        verify(sagaRetryRouter).reroute(first, conflict);
+        verify(sagaRetryRouter).reroute(second, conflict);
+        verify(orderService, times(2)).markConfirmed(failing);
+        verify(orderService).markConfirmed(other);
+    }
+
+    @Test
+    @DisplayName("재시도 토픽 레코드는 예정 시각 전이면 처리하지 않고 대기")
+    void onFirstRetry_NotDueYet_Nacks() {
+        // given
+        ConsumerRecord<String, String> retried = record("order.saga.retry-0",
+                captured(UUID.randomUUID(), UUID.randomUUID()));
+        when(sagaRetryRouter.remainingDelayMs(retried)).thenReturn(800L);
+
+        // when
+        sagaOrchestrator.onFirstRetry(retried, acknowledgment);
+
+        // then
+        verify(acknowledgment).nack(Duration.ofMillis(800));
+        verify(orderService, never()).markConfirmed(any());
+    }
+
+    @Test
+    @DisplayName("주문 키별 병렬 처리 - 다른 주문은 계속 진행, 격리 실패는 가장 앞선 인덱스로 보고")
+    void onPaymentEvents_KeyParallelLanes() {
+        // given
+        ReflectionTestUtils.setField(sagaOrchestrator, "keyParallelism", 4);
+        UUID failing = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        while (Math.floorMod(other.hashCode(), 4) == Math.floorMod(failing.hashCode(), 4)) {
+            other = UUID.randomUUID();
+        }
+        IllegalStateException dbDown = new IllegalStateException("db down");
+        // Lenient: the other lane calls the same methods with other arguments from its own thread, which a
+        // strict stub would reject as an argument mismatch.
+        lenient().doThrow(dbDown).when(orderService).markConfirmed(failing);
+        lenient().doThrow(new IllegalStateException("broker down")).when(sagaRetryRouter).reroute(any(), eq(dbDown));
+
+        // when
+        List<ConsumerRecord<String, String>> records = List.of(
+                record("payment.events", captured(UUID.randomUUID(), other)),
+                record("payment.events", captured(UUID.randomUUID(), failing)),
+                record("payment.events", captured(UUID.randomUUID(), failing)));
+
+        // then
+        assertThatThrownBy(() -> sagaOrchestrator.onPaymentEvents(records))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .hasFieldOrPropertyWithValue("index", 1);
+        verify(orderService).markConfirmed(other);
+        verify(orderService, times(2)).markConfirmed(failing);
+    }
+
+    private String captured(UUID eventId, UUID orderId) {
+        return String.format(
+                "{\"meta\": {\"eventType\": \"PaymentCaptured\", \"eventId\": \"%s\"}, \"data\": {\"orderId\": \"%s\"}}",
+                eventId, orderId);
+    }
+
+    private ConsumerRecord<String, String> record(String topic, String payload) {
+        return new ConsumerRecord<>(topic, 0, 0L, null, payload);
+    }
 }
@@ -0,0 +1,100 @@
+package com.shopping.order.saga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class SagaRetryRouterTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private SagaRetryRouter sagaRetryRouter;
+
+    @BeforeEach
+    void setUp() {
+        sagaRetryRouter = new SagaRetryRouter(kafkaTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sagaRetryRouter, "retryTopicPrefix", "order.saga.retry");
+        ReflectionTestUtils.setField(sagaRetryRouter, "deadLetterTopic", "order.dlq");
+        ReflectionTestUtils.setField(sagaRetryRouter, "initialDelay", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(sagaRetryRouter, "multiplier", 4);
+        ReflectionTestUtils.setField(sagaRetryRouter, "sendTimeoutMs", 1000L);
+        when(kafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, String>>any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    @DisplayName("일시적 실패는 재시도 단계를 차례로 거친 뒤 DLQ로 이동")
+    void reroute_WalksRetryTiersThenDeadLetters() {
+        // given
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("payment.events", 2, 42L, "order-1", "{}");
+        ObjectOptimisticLockingFailureException conflict =
+                new ObjectOptimisticLockingFailureException("OrderEntity", "order-1");
+
+        // when
+        for (int tier = 0; tier <= SagaRetryRouter.RETRY_TIERS; tier++) {
+            sagaRetryRouter.reroute(record, conflict);
+            record = received(lastSent());
+        }
+
+        // then
+        assertThat(record.topic()).isEqualTo("order.dlq");
+        assertThat(header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC)).isEqualTo("payment.events");
+        assertThat(sagaRetryRouter.delay(2)).isEqualTo(Duration.ofSeconds(16));
+    }
+
+    @Test
+    @DisplayName("잘못된 데이터는 재시도 없이 바로 DLQ로 이동")
+    void reroute_PoisonGoesStraightToDeadLetter() {
+        // given
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("inventory.events", 0, 7L, "order-1", "{}");
+
+        // when
+        sagaRetryRouter.reroute(record, new BadRequestException("Missing field orderId in event payload"));
+
+        // then
+        ProducerRecord<String, String> sent = lastSent();
+        assertThat(sent.topic()).isEqualTo("order.dlq");
+        assertThat(sent.key()).isEqualTo("order-1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, String> lastSent() {
+        ArgumentCaptor<ProducerRecord<String, String>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private ConsumerRecord<String, String> received(ProducerRecord<String, String> sent) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(sent.topic(), 0, 0L, sent.key(), sent.value());
+        sent.headers().forEach(header -> record.headers().add(header));
+        return record;
+    }
+
+    private String header(ConsumerRecord<String, String> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -3,11 +3,15 @@ package com.shopping.order.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.shopping.order.client.ProductCache;
 import com.shopping.order.client.ProductDto;
-import com.shopping.order.client.ProductServiceClient;
 import com.shopping.order.dto.CartItemRequest;
 import com.shopping.order.dto.CartResponse;
 import com.shopping.order.dto.CheckoutRequest;
@@ -20,6 +24,8 @@ import com.shopping.order.repository.CartItemRepository;
 import com.shopping.order.repository.CartRepository;
 import com.shopping.order.repository.OrderRepository;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +35,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class CartServiceTest {
@@ -43,7 +51,13 @@ class CartServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ProductServiceClient productServiceClient;
+    private ProductCache productCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private HotCartStore hotCartStore;
 
     @InjectMocks
     private CartService cartService;
@@ -66,6 +80,7 @@ class CartServiceTest {
     @DisplayName("장바구니 조회 - 없으면 생성")
     void getCart_CreateIfNotFound() {
         // given
+        runInTransaction();
         when(cartRepository.findByUserId(userId)).thenReturn(Optional.empty());
         when(cartRepository.save(any(CartEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -91,23 +106,136 @@ class CartServiceTest {
         productDto.setName("Test Product");
         productDto.setBasePrice(1000);
 
+        runInTransaction();
         when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(productServiceClient.getProduct(request.getProductId())).thenReturn(productDto);
-        when(cartItemRepository.save(any(CartItemEntity.class))).thenAnswer(inv -> {
-            CartItemEntity item = inv.getArgument(0);
-            item.setId(UUID.randomUUID());
-            return item;
-        });
+        when(productCache.getProducts(List.of(request.getProductId())))
+                .thenReturn(Map.of(request.getProductId(), productDto));
+        when(cartItemRepository.save(any(CartItemEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // when
         CartResponse response = cartService.addItem(userId, request);
 
         // then
         assertThat(response.getItems()).hasSize(1);
+        assertThat(response.getItems().get(0).getProductName()).isEqualTo("Test Product");
         assertThat(response.getTotalAmount()).isEqualTo(2000);
+        verify(productCache).getProducts(List.of(request.getProductId()));
         verify(cartRepository).save(cart);
     }
 
+    @Test
+    @DisplayName("장바구니 수량 변경 - 상품 재조회 없이 합계 증감")
+    void updateItem_AppliesDeltaWithoutLookup() {
+        // given
+        CartItemEntity priced = new CartItemEntity();
+        priced.setId(UUID.randomUUID());
+        priced.setProductId(UUID.randomUUID());
+        priced.setQuantity(1);
+        priced.capturePrice("Priced Product", 500);
+        CartItemEntity item = new CartItemEntity();
+        item.setId(UUID.randomUUID());
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(2);
+        item.capturePrice("Test Product", 1000);
+        cart.getItems().addAll(List.of(priced, item));
+        cart.setTotalAmount(2500);
+
+        CartItemRequest request = new CartItemRequest();
+        request.setQuantity(5);
+
+        runInTransaction();
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+
+        // when
+        CartResponse response = cartService.updateItem(userId, item.getId(), request);
+
+        // then
+        assertThat(response.getTotalAmount()).isEqualTo(5500);
+        assertThat(response.getItems().get(1).getLineTotal()).isEqualTo(5000);
+        verifyNoInteractions(productCache);
+    }
+
+    @Test
+    @DisplayName("핫 장바구니 사용 시 Redis만으로 아이템 추가")
+    void addItem_HotStore_SkipsDatabase() {
+        // given
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(3);
+
+        ProductDto productDto = new ProductDto();
+        productDto.setName("Test Product");
+        productDto.setBasePrice(1000);
+
+        when(hotCartStore.isEnabled()).thenReturn(true);
+        when(hotCartStore.load(userId)).thenReturn(Optional.of(new HotCartStore.HotCart(cart, 1)));
+        when(hotCartStore.save(cart, 1)).thenReturn(true);
+        when(productCache.getProducts(List.of(request.getProductId())))
+                .thenReturn(Map.of(request.getProductId(), productDto));
+
+        // when
+        CartResponse response = cartService.addItem(userId, request);
+
+        // then
+        assertThat(response.getTotalAmount()).isEqualTo(3000);
+        verify(hotCartStore).save(cart, 1);
+        verifyNoInteractions(cartRepository, cartItemRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("핫 장바구니가 동시에 변경되면 최신 장바구니에 다시 적용")
+    void addItem_HotStoreChangedConcurrently_RetriesOnLatestCart() {
+        // given
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(UUID.randomUUID());
+        request.setQuantity(3);
+
+        ProductDto productDto = new ProductDto();
+        productDto.setName("Test Product");
+        productDto.setBasePrice(1000);
+
+        CartEntity latest = new CartEntity();
+        latest.setId(cart.getId());
+        latest.setUserId(userId);
+        CartItemEntity added = new CartItemEntity();
+        added.setId(UUID.randomUUID());
+        added.setProductId(UUID.randomUUID());
+        added.setQuantity(1);
+        added.capturePrice("Other Product", 500);
+        latest.getItems().add(added);
+        latest.setTotalAmount(500);
+
+        when(hotCartStore.isEnabled()).thenReturn(true);
+        when(hotCartStore.load(userId))
+                .thenReturn(Optional.of(new HotCartStore.HotCart(cart, 1)))
+                .thenReturn(Optional.of(new HotCartStore.HotCart(latest, 2)));
+        when(hotCartStore.save(cart, 1)).thenReturn(false);
+        when(hotCartStore.save(latest, 2)).thenReturn(true);
+        when(productCache.getProducts(List.of(request.getProductId())))
+                .thenReturn(Map.of(request.getProductId(), productDto));
+
+        // when
+        CartResponse response = cartService.addItem(userId, request);
+
+        // then
+        assertThat(response.getTotalAmount()).isEqualTo(3500);
+        assertThat(latest.getItems()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("가격 변경 이벤트 - 해당 상품을 담은 장바구니 합계 재계산")
+    void applyPriceChange_RecalculatesAffectedCarts() {
+        // given
+        UUID productId = UUID.randomUUID();
+        when(cartItemRepository.updatePrice(productId, "Test Product", 1200)).thenReturn(3);
+
+        // when
+        cartService.applyPriceChange(productId, "Test Product", 1200);
+
+        // then
+        verify(cartRepository).recalculateTotalsContaining(productId);
+    }
+
     @Test
     @DisplayName("체크아웃 성공 - 주문 생성 및 장바구니 비우기")
     void checkout_Success() {
@@ -126,8 +254,11 @@ class CartServiceTest {
         productDto.setName("Test Product");
         productDto.setBasePrice(1000);
 
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(productServiceClient.getProduct(any())).thenReturn(productDto);
+        when(cartItemRepository.findProductIdsByUserId(userId)).thenReturn(List.of(item.getProductId()));
+        when(productCache.getProducts(List.of(item.getProductId())))
+                .thenReturn(Map.of(item.getProductId(), productDto));
+        runInTransaction();
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(cart));
         when(orderRepository.save(any(OrderEntity.class))).thenAnswer(inv -> {
             OrderEntity order = inv.getArgument(0);
             order.setId(UUID.randomUUID());
@@ -141,7 +272,7 @@ class CartServiceTest {
         assertThat(response.getTotalAmount()).isEqualTo(2000);
         assertThat(cart.getItems()).isEmpty();
         assertThat(cart.getTotalAmount()).isZero();
-        verify(orderRepository).save(any(OrderEntity.class));
+        verify(orderRepository).save(argThat(order -> "Test Product".equals(order.getItems().get(0).getProductName())));
         verify(cartRepository).save(cart);
     }
 
@@ -149,10 +280,50 @@ class CartServiceTest {
     @DisplayName("체크아웃 실패 - 빈 장바구니")
     void checkout_EmptyCart() {
         // given
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        runInTransaction();
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(cart));
 
         // when & then
         assertThatThrownBy(() -> cartService.checkout(userId, new CheckoutRequest()))
                 .isInstanceOf(BadRequestException.class);
     }
+
+    @Test
+    @DisplayName("핫 장바구니 체크아웃 - 잠근 장바구니에 Redis 사본을 옮긴 뒤 주문")
+    void checkout_HotStore_TakesHotCopyUnderLock() {
+        // given
+        CartEntity hot = new CartEntity();
+        hot.setId(cart.getId());
+        hot.setUserId(userId);
+        CartItemEntity item = new CartItemEntity();
+        item.setId(UUID.randomUUID());
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(1);
+        item.capturePrice("Test Product", 1000);
+        hot.getItems().add(item);
+
+        CheckoutRequest request = new CheckoutRequest();
+        request.setShippingAddress("Seoul, Korea");
+
+        when(hotCartStore.isEnabled()).thenReturn(true);
+        when(hotCartStore.load(userId)).thenReturn(Optional.of(new HotCartStore.HotCart(hot, 1)));
+        when(productCache.getProducts(List.of(item.getProductId()))).thenReturn(Map.of());
+        runInTransaction();
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(cart));
+        doAnswer(inv -> cart.getItems().add(item)).when(hotCartStore).takeInto(cart);
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // when
+        CheckoutResponse response = cartService.checkout(userId, request);
+
+        // then
+        assertThat(response.getTotalAmount()).isEqualTo(1000);
+        assertThat(cart.getItems()).isEmpty();
+        verify(cartItemRepository, never()).findProductIdsByUserId(userId);
+    }
+
+    private void runInTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
@@ -0,0 +1,164 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.entity.CartEntity;
+import com.shopping.order.entity.CartItemEntity;
+import com.shopping.order.exception.ConflictException;
+import com.shopping.order.repository.CartItemRepository;
+import com.shopping.order.repository.CartRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class HotCartStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private HashOperations<String, String, String> hashOperations;
+
+    private HotCartStore hotCartStore;
+
+    @BeforeEach
+    void setUp() {
+        hotCartStore = new HotCartStore(redisTemplate, new ObjectMapper().findAndRegisterModules(), cartRepository,
+                cartItemRepository, transactionTemplate);
+        ReflectionTestUtils.setField(hotCartStore, "enabled", true);
+        ReflectionTestUtils.setField(hotCartStore, "flushBatchSize", 100);
+        ReflectionTestUtils.setField(hotCartStore, "flushLease", Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("장바구니를 Redis 해시로 변환 후 복원")
+    void hash_RoundTripsCart() {
+        // given
+        CartEntity cart = new CartEntity();
+        cart.setId(UUID.randomUUID());
+        cart.setUserId("test-user-id");
+        cart.setTotalAmount(3500);
+        cart.setCreatedAt(LocalDateTime.now());
+        CartItemEntity first = item(cart, 2, 1000, LocalDateTime.now().minusMinutes(1));
+        CartItemEntity second = item(cart, 3, 500, LocalDateTime.now());
+        cart.getItems().addAll(List.of(second, first));
+
+        // when
+        Map<String, String> hash = hotCartStore.toHash(cart);
+        CartEntity restored = hotCartStore.fromHash("test-user-id", hash);
+
+        // then
+        assertThat(hash).hasSize(3);
+        assertThat(restored.getId()).isEqualTo(cart.getId());
+        assertThat(restored.getTotalAmount()).isEqualTo(3500);
+        assertThat(restored.getItems()).extracting(CartItemEntity::getId)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(restored.getItems().get(0).getLineTotal()).isEqualTo(2000);
+        assertThat(restored.getItems().get(0).isNew()).isTrue();
+    }
+
+    @Test
+    @DisplayName("변경된 장바구니가 없으면 DB에 쓰지 않음")
+    void flushDirty_NothingDirty_SkipsDatabase() {
+        // given
+        when(redisTemplate.execute(eq(HotCartStore.CLAIM_SCRIPT), eq(List.of(HotCartStore.DIRTY_KEY)), any(), any(),
+                eq("100"))).thenReturn(List.of());
+
+        // when
+        hotCartStore.flushDirty();
+
+        // then
+        verifyNoInteractions(transactionTemplate, cartRepository);
+    }
+
+    @Test
+    @DisplayName("DB 반영 후에만 변경 표시 해제, 실패하면 임대가 끝난 뒤 다시 반영")
+    void flushDirty_ReleasesClaimOnlyAfterCommit() {
+        // given
+        when(redisTemplate.execute(eq(HotCartStore.CLAIM_SCRIPT), eq(List.of(HotCartStore.DIRTY_KEY)), any(), any(),
+                eq("100"))).thenReturn(List.of("test-user-id"));
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        // when
+        hotCartStore.flushDirty();
+        hotCartStore.flushDirty();
+
+        // then
+        verify(redisTemplate, times(1)).execute(eq(HotCartStore.RELEASE_SCRIPT),
+                eq(List.of(HotCartStore.DIRTY_KEY)), any(), eq("test-user-id"));
+    }
+
+    @Test
+    @DisplayName("체크아웃 중 핫 장바구니가 변경되면 커밋 전에 충돌로 실패")
+    void takeInto_ChangedDuringCheckout_FailsBeforeCommit() {
+        // given
+        CartEntity cart = new CartEntity();
+        cart.setId(UUID.randomUUID());
+        cart.setUserId("test-user-id");
+        cart.setTotalAmount(0);
+        Map<String, String> hash = new HashMap<>(hotCartStore.toHash(cart));
+        hash.put("version", "3");
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("cart:test-user-id")).thenReturn(hash);
+        when(redisTemplate.execute(any(), eq(List.of("cart:test-user-id", HotCartStore.DIRTY_KEY)), eq("3"),
+                eq("test-user-id"))).thenReturn(0L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            hotCartStore.takeInto(cart);
+            TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+
+            // then
+            assertThatThrownBy(() -> synchronization.beforeCommit(false)).isInstanceOf(ConflictException.class);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CartItemEntity item(CartEntity cart, int quantity, int unitPrice, LocalDateTime createdAt) {
+        CartItemEntity item = new CartItemEntity();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(quantity);
+        item.capturePrice("Product", unitPrice);
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+}
@@ -0,0 +1,109 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.entity.IdempotencyRecordId;
+import com.shopping.order.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String CONSUMER_ID = "order-saga-orchestrator";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new IdempotencyFilter(idempotencyRecordRepository, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "warmUpWindow", Duration.ofDays(7));
+        filter.init();
+    }
+
+    @Test
+    @DisplayName("워밍업 전에는 모든 이벤트를 DB로 확인")
+    void beforeWarmUp_AllLookupsGoToDatabase() {
+        // given
+        UUID eventId = UUID.randomUUID();
+
+        // when / then
+        assertThat(filter.mightBeProcessed(CONSUMER_ID, eventId)).isTrue();
+        assertThat(meterRegistry.get("idempotency.filter.avoided.ratio").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("워밍업 이후 처리 이력이 있는 이벤트만 DB 조회 대상")
+    void afterWarmUp_OnlyKnownKeysNeedDatabase() {
+        // given
+        UUID processed = UUID.randomUUID();
+        warmUpWith(List.of(new IdempotencyRecordId(CONSUMER_ID, processed)));
+        List<UUID> fresh = IntStream.range(0, 200).mapToObj(i -> UUID.randomUUID()).toList();
+        List<UUID> batch = new ArrayList<>(fresh);
+        batch.add(processed);
+
+        // when
+        List<UUID> candidates = filter.mightBeProcessed(CONSUMER_ID, batch);
+
+        // then
+        assertThat(candidates).contains(processed).hasSizeLessThan(10);
+        assertThat(meterRegistry.get("idempotency.filter.avoided.ratio").gauge().value()).isGreaterThan(0.9);
+    }
+
+    @Test
+    @DisplayName("가득 찬 세대를 교체해도 최근 키는 유지")
+    void rotation_KeepsRecentKeys() {
+        // given
+        warmUpWith(List.of());
+        List<UUID> recent = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 2500; i++) {
+            UUID eventId = UUID.randomUUID();
+            filter.put(CONSUMER_ID, eventId);
+            if (i >= 2000) {
+                recent.add(eventId);
+            }
+        }
+
+        // then
+        assertThat(filter.mightBeProcessed(CONSUMER_ID, recent)).containsExactlyElementsOf(recent);
+    }
+
+    private void warmUpWith(List<IdempotencyRecordId> ids) {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Long>>getArgument(0).doInTransaction((TransactionStatus) null));
+        when(idempotencyRecordRepository.streamIdsProcessedSince(any(LocalDateTime.class)))
+                .thenReturn(ids.stream());
+        filter.warmUp();
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyMaintenanceJobTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private MeterRegistry meterRegistry;
+    private IdempotencyMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new IdempotencyMaintenanceJob(idempotencyRecordRepository, meterRegistry);
+        ReflectionTestUtils.setField(job, "ttl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(job, "purgeBatchSize", 100);
+        ReflectionTestUtils.setField(job, "maxBatchesPerRun", 5);
+        job.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("TTL이 지난 멱등성 레코드를 남은 건이 없을 때까지 배치 삭제")
+    void purgeExpired_StopsOnPartialBatch() {
+        // given
+        when(idempotencyRecordRepository.deleteProcessedBefore(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100, 40);
+
+        // when
+        job.purgeExpired();
+
+        // then
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyRecordRepository, times(2)).deleteProcessedBefore(cutoff.capture(), eq(100));
+        assertThat(cutoff.getValue()).isBefore(LocalDateTime.now().minusDays(7).plusMinutes(1));
+        assertThat(meterRegistry.get("idempotency.purged").counter().count()).isEqualTo(140);
+    }
+}
@@ -4,30 +4,46 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopping.order.dto.ApproveOrderRequest;
+import com.shopping.order.dto.OrderHistoryPage;
 import com.shopping.order.dto.OrderResponse;
 import com.shopping.order.dto.OrderStatusResponse;
 import com.shopping.order.entity.OrderEntity;
+import com.shopping.order.entity.SagaContext;
 import com.shopping.order.entity.SagaState;
+import com.shopping.order.enums.CompensationStep;
 import com.shopping.order.enums.OrderSagaStatus;
 import com.shopping.order.enums.OrderStatus;
+import com.shopping.order.enums.SagaProgressStep;
+import com.shopping.order.enums.SagaStatus;
 import com.shopping.order.exception.BadRequestException;
 import com.shopping.order.exception.NotFoundException;
 import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.repository.OrderSummaryView;
 import com.shopping.order.repository.SagaStateRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -41,6 +57,18 @@ class OrderServiceTest {
     @Mock
     private OutboxService outboxService;
 
+    @Mock
+    private SagaTimeoutWheel sagaTimeoutWheel;
+
+    @Mock
+    private OrderStatusStore orderStatusStore;
+
+    @Mock
+    private SagaProgressHub sagaProgressHub;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private OrderService orderService;
 
@@ -72,6 +100,38 @@ class OrderServiceTest {
         verify(orderRepository).findById(orderId);
     }
 
+    @Test
+    @DisplayName("주문 이력 조회 - 커서로 다음 페이지 이어서 조회")
+    void getOrdersByUser_KeysetPaging() {
+        // given
+        ReflectionTestUtils.setField(orderService, "historyMaxPageSize", 100);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        order.setCreatedAt(createdAt);
+        when(orderRepository.findSummaryPage(eq("test-user-id"), any(Limit.class)))
+                .thenReturn(List.of(summary(orderId, createdAt)));
+        when(orderRepository.findWithItemsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+
+        // when
+        OrderHistoryPage<OrderResponse> first = orderService.getOrdersByUser("test-user-id", null, 1);
+        orderService.getOrderSummariesByUser("test-user-id", first.nextCursor(), 1);
+
+        // then
+        assertThat(first.orders()).extracting(OrderResponse::getId).containsExactly(orderId);
+        assertThat(first.nextCursor()).isNotNull();
+        verify(orderRepository).findSummaryPageBefore("test-user-id", createdAt, orderId, Limit.of(1));
+    }
+
+    @Test
+    @DisplayName("주문 이력 조회 실패 - 잘못된 커서")
+    void getOrdersByUser_InvalidCursor() {
+        // given
+        ReflectionTestUtils.setField(orderService, "historyMaxPageSize", 100);
+
+        // when & then
+        assertThatThrownBy(() -> orderService.getOrderSummariesByUser("test-user-id", "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class);
+    }
+
     @Test
     @DisplayName("주문 조회 실패 - 존재하지 않는 주문")
     void getOrder_NotFound() {
@@ -108,6 +168,8 @@ class OrderServiceTest {
                 eq(orderId),
                 any(),
                 anyString());
+        verify(sagaTimeoutWheel).schedule(any(), eq(orderId), eq(SagaStatus.RUNNING), any(LocalDateTime.class));
+        verify(orderStatusStore).put(order);
     }
 
     @Test
@@ -144,4 +206,140 @@ class OrderServiceTest {
                 any(),
                 anyString());
     }
+
+    @Test
+    @DisplayName("사가 단계 전이 시 상태 프로젝션과 진행 스트림에 반영")
+    void markConfirmed_WritesStatusThrough() {
+        // given
+        order.setStatus(OrderStatus.PAYMENT_AUTHORIZING);
+        order.setSagaStatus(OrderSagaStatus.RUNNING);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // when
+        orderService.markConfirmed(orderId);
+
+        // then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        verify(orderStatusStore).put(order);
+        verify(sagaProgressHub).publish(argThat(event -> event.step() == SagaProgressStep.CONFIRMED
+                && event.status() == OrderStatus.CONFIRMED));
+    }
+
+    @Test
+    @DisplayName("주문 상태 롱폴링 - 상태가 바뀌면 응답")
+    void awaitOrderStatus_CompletesOnChange() {
+        // given
+        ReflectionTestUtils.setField(orderService, "statusMaxWait", Duration.ofSeconds(25));
+        CompletableFuture<Void> change = new CompletableFuture<>();
+        when(orderStatusStore.awaitChange(orderId, Duration.ofSeconds(10))).thenReturn(change);
+        OrderStatusResponse reserving =
+                new OrderStatusResponse(orderId, OrderStatus.INVENTORY_RESERVING, "RUNNING", "OK");
+        OrderStatusResponse authorizing =
+                new OrderStatusResponse(orderId, OrderStatus.PAYMENT_AUTHORIZING, "RUNNING", "OK");
+        when(orderStatusStore.get(orderId)).thenReturn(Optional.of(reserving)).thenReturn(Optional.of(authorizing));
+
+        // when
+        CompletableFuture<OrderStatusResponse> response =
+                orderService.awaitOrderStatus(orderId, OrderStatus.INVENTORY_RESERVING, 10_000);
+        boolean answeredBeforeChange = response.isDone();
+        change.complete(null);
+
+        // then
+        assertThat(answeredBeforeChange).isFalse();
+        assertThat(response.join().getStatus()).isEqualTo(OrderStatus.PAYMENT_AUTHORIZING);
+    }
+
+    @Test
+    @DisplayName("주문 상태 조회 - 프로젝션이 없으면 DB에서 읽어 채움")
+    void getOrderStatus_Miss_SeedsProjection() {
+        // given
+        when(orderStatusStore.get(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // when
+        OrderStatusResponse response = orderService.getOrderStatus(orderId);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.PENDING_APPROVAL);
+        verify(orderStatusStore).put(order);
+    }
+
+    @Test
+    @DisplayName("보상 단계가 모두 완료되면 사가 종료")
+    void handleCompensationStepCompleted_AllStepsDone() {
+        // given
+        SagaState sagaState = new SagaState();
+        sagaState.setOrderId(orderId);
+        sagaState.setStatus(SagaStatus.COMPENSATING);
+        sagaState.setSagaContext(SagaContext.expecting(
+                EnumSet.of(CompensationStep.CANCEL_INVENTORY, CompensationStep.VOID_PAYMENT)));
+        when(sagaStateRepository.findByOrderId(orderId)).thenReturn(Optional.of(sagaState));
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // when
+        orderService.handleCompensationStepCompleted(orderId, CompensationStep.CANCEL_INVENTORY);
+        SagaStatus afterFirstStep = sagaState.getStatus();
+        orderService.handleCompensationStepCompleted(orderId, CompensationStep.VOID_PAYMENT);
+
+        // then
+        assertThat(afterFirstStep).isEqualTo(SagaStatus.COMPENSATING);
+        assertThat(sagaState.getStatus()).isEqualTo(SagaStatus.FAILED);
+        assertThat(sagaState.getCurrentStep()).isEqualTo("COMPENSATION_DONE");
+        assertThat(order.getSagaStatus()).isEqualTo(OrderSagaStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("기존 JSON 컨텍스트의 보상 단계를 비트마스크로 이전")
+    void handleCompensationStepCompleted_MigratesLegacyJsonContext() {
+        // given
+        SagaState sagaState = new SagaState();
+        sagaState.setOrderId(orderId);
+        sagaState.setStatus(SagaStatus.COMPENSATING);
+        sagaState.setContext("{\"expectedSteps\": [\"CANCEL_INVENTORY\", \"VOID_PAYMENT\"], "
+                + "\"completedSteps\": [\"VOID_PAYMENT\"]}");
+        when(sagaStateRepository.findByOrderId(orderId)).thenReturn(Optional.of(sagaState));
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // when
+        orderService.handleCompensationStepCompleted(orderId, CompensationStep.CANCEL_INVENTORY);
+
+        // then
+        assertThat(sagaState.getSagaContext()).isNotNull();
+        assertThat(sagaState.getSagaContext().isComplete()).isTrue();
+        assertThat(sagaState.getStatus()).isEqualTo(SagaStatus.FAILED);
+    }
+
+    private OrderSummaryView summary(UUID id, LocalDateTime createdAt) {
+        return new OrderSummaryView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public OrderStatus getStatus() {
+                return OrderStatus.CONFIRMED;
+            }
+
+            @Override
+            public Integer getTotalAmount() {
+                return 10000;
+            }
+
+            @Override
+            public String getCurrency() {
+                return "KRW";
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return createdAt;
+            }
+        };
+    }
 }
@@ -0,0 +1,57 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @InjectMocks
+    private OrderStatusStore orderStatusStore;
+
+    @Test
+    @DisplayName("상태 변경 알림이 오면 해당 주문의 대기자만 깨움")
+    void onMessage_WakesWaitersOfThatOrder() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        CompletableFuture<Void> waiter = orderStatusStore.awaitChange(orderId, Duration.ofMinutes(1));
+        CompletableFuture<Void> other = orderStatusStore.awaitChange(UUID.randomUUID(), Duration.ofMinutes(1));
+
+        // when
+        orderStatusStore.onMessage(new DefaultMessage(OrderStatusStore.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                orderId.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+        // then
+        assertThat(waiter).isCompleted();
+        assertThat(other).isNotDone();
+    }
+
+    @Test
+    @DisplayName("알림이 없으면 대기 시간이 지난 뒤 응답")
+    void awaitChange_TimesOut() {
+        // when
+        CompletableFuture<Void> waiter = orderStatusStore.awaitChange(UUID.randomUUID(), Duration.ofMillis(20));
+
+        // then
+        assertThat(waiter.join()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxMaintenanceJobTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private MeterRegistry meterRegistry;
+    private OutboxMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OutboxMaintenanceJob(outboxEventRepository, meterRegistry);
+        ReflectionTestUtils.setField(job, "retention", Duration.ofHours(72));
+        ReflectionTestUtils.setField(job, "pruneBatchSize", 100);
+        ReflectionTestUtils.setField(job, "maxBatchesPerRun", 3);
+        job.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("보존 기간이 지난 발행 이벤트를 배치 단위로 삭제")
+    void prunePublished_DeletesInBoundedBatches() {
+        // given
+        when(outboxEventRepository.deletePublishedBefore(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100, 100, 100, 100);
+
+        // when
+        job.prunePublished();
+
+        // then
+        verify(outboxEventRepository, times(3)).deletePublishedBefore(any(LocalDateTime.class), eq(100));
+        assertThat(meterRegistry.get("outbox.pruned").counter().count()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("미발행 적체 건수와 가장 오래된 이벤트 나이를 게이지로 노출")
+    void refreshBacklogMetrics() {
+        // given
+        when(outboxEventRepository.countByPublishedFalse()).thenReturn(42L);
+        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
+                .thenReturn(LocalDateTime.now().minusMinutes(2));
+
+        // when
+        job.refreshBacklogMetrics();
+
+        // then
+        assertThat(meterRegistry.get("outbox.backlog.size").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("outbox.backlog.age").gauge().value()).isBetween(119.0, 121.0);
+    }
+}
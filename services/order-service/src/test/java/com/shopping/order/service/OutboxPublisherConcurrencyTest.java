@@ -0,0 +1,128 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.entity.OutboxEvent;
+import com.shopping.order.repository.OutboxEventRepository;
+import com.shopping.order.support.TopicRouter;
+import io.micrometer.tracing.Tracer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxPublisherConcurrencyTest {
+
+    private static final int PUBLISHERS = 4;
+    private static final int AGGREGATES = 50;
+    private static final int EVENTS_PER_AGGREGATE = 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("여러 발행기가 한 번씩 드레인하면 중복 없이 주문별 순서대로 모두 발행")
+    void concurrentPublishers_DrainDisjointRowsInAggregateOrder() throws Exception {
+        // given
+        for (int seq = 0; seq < EVENTS_PER_AGGREGATE; seq++) {
+            for (int a = 0; a < AGGREGATES; a++) {
+                outboxEventRepository.save(event(aggregateId(a), seq));
+            }
+        }
+        Map<String, List<String>> expected = expectedOrder();
+
+        List<String[]> sent = Collections.synchronizedList(new ArrayList<>());
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            sent.add(new String[] {invocation.getArgument(1), invocation.getArgument(2)});
+            return CompletableFuture.completedFuture(null);
+        });
+        TopicRouter topicRouter = new TopicRouter(
+                "order.events", "order.commands", "inventory.commands", "payment.commands");
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(PUBLISHERS);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int i = 0; i < PUBLISHERS; i++) {
+            OutboxPublisher publisher = new OutboxPublisher(outboxEventRepository, kafkaTemplate, topicRouter,
+                    Tracer.NOOP, new TransactionTemplate(transactionManager));
+            ReflectionTestUtils.setField(publisher, "batchSize", 25);
+            ReflectionTestUtils.setField(publisher, "ackTimeoutMs", 5000L);
+            runs.add(executor.submit(publisher::drain));
+        }
+        for (Future<?> run : runs) {
+            run.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(outboxEventRepository.countByPublishedFalse()).isZero();
+        assertThat(sent).hasSize(AGGREGATES * EVENTS_PER_AGGREGATE);
+        Map<String, List<String>> actual = new LinkedHashMap<>();
+        for (String[] record : sent) {
+            actual.computeIfAbsent(record[0], k -> new ArrayList<>()).add(record[1]);
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private Map<String, List<String>> expectedOrder() {
+        Map<String, List<String>> expected = new LinkedHashMap<>();
+        outboxEventRepository.findAll().stream()
+                .sorted(Comparator.comparing(OutboxEvent::getSeq))
+                .forEach(event -> expected
+                        .computeIfAbsent(event.getAggregateId().toString(), k -> new ArrayList<>())
+                        .add(event.getPayload()));
+        return expected;
+    }
+
+    private UUID aggregateId(int index) {
+        return new UUID(0L, index + 1L);
+    }
+
+    private OutboxEvent event(UUID aggregateId, int seq) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("ORDER");
+        event.setAggregateId(aggregateId);
+        event.setEventType("OrderConfirmed");
+        event.setPayload("{\"seq\": " + seq + "}");
+        return event;
+    }
+}
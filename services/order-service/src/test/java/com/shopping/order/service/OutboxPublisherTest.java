@@ -0,0 +1,157 @@
+package com.shopping.order.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.entity.OutboxEvent;
+import com.shopping.order.repository.OutboxEventRepository;
+import com.shopping.order.support.TopicRouter;
+import io.micrometer.tracing.Tracer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private TopicRouter topicRouter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxPublisher outboxPublisher;
+
+    @BeforeEach
+    void setUp() {
+        outboxPublisher = new OutboxPublisher(
+                outboxEventRepository, kafkaTemplate, topicRouter, Tracer.NOOP, transactionTemplate);
+        ReflectionTestUtils.setField(outboxPublisher, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxPublisher, "ackTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxPublisher, "maxBatchesPerRun", 10);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("덜 찬 페이지 뒤에도 가져올 이벤트가 없을 때까지 연속 발행")
+    void drain_PublishesUntilNothingClaimable() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        OutboxEvent first = event(UUID.randomUUID());
+        OutboxEvent second = event(UUID.randomUUID());
+        OutboxEvent third = event(orderId);
+        OutboxEvent thirdNext = event(orderId);
+        when(topicRouter.route(anyString())).thenReturn("order.events");
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+        when(outboxEventRepository.claimBatch(2))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third))
+                .thenReturn(List.of(thirdNext))
+                .thenReturn(List.of());
+
+        // when
+        outboxPublisher.drain();
+
+        // then
+        verify(kafkaTemplate, times(4)).send(eq("order.events"), anyString(), anyString());
+        verify(outboxEventRepository).markPublished(eq(List.of(first.getId(), second.getId())), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(third.getId())), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(thirdNext.getId())), any());
+        verify(outboxEventRepository, times(4)).claimBatch(2);
+    }
+
+    @Test
+    @DisplayName("브로커 미확인 이벤트와 같은 주문의 후속 이벤트는 완료 처리하지 않음")
+    void publishPendingEvents_SkipsUnacknowledgedAggregate() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        OutboxEvent failed = event(orderId);
+        OutboxEvent sameOrder = event(orderId);
+        OutboxEvent otherOrder = event(UUID.randomUUID());
+        when(topicRouter.route(anyString())).thenReturn("order.events");
+        when(kafkaTemplate.send(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(acked())
+                .thenReturn(acked());
+        when(outboxEventRepository.claimBatch(2))
+                .thenReturn(List.of(failed, sameOrder, otherOrder));
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(outboxEventRepository).markPublished(eq(List.of(otherOrder.getId())), any());
+        verify(outboxEventRepository, times(1)).claimBatch(2);
+    }
+
+    @Test
+    @DisplayName("미발행 이벤트 없음")
+    void publishPendingEvents_NoEvents() {
+        // given
+        when(outboxEventRepository.claimBatch(2))
+                .thenReturn(List.of());
+
+        // when
+        outboxPublisher.publishPendingEvents();
+
+        // then
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("한 번에 발행하는 페이지 수는 상한까지만")
+    void drain_StopsAtMaxBatchesPerRun() {
+        // given
+        ReflectionTestUtils.setField(outboxPublisher, "maxBatchesPerRun", 2);
+        when(topicRouter.route(anyString())).thenReturn("order.events");
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(acked());
+        when(outboxEventRepository.claimBatch(2))
+                .thenReturn(List.of(event(UUID.randomUUID()), event(UUID.randomUUID())))
+                .thenReturn(List.of(event(UUID.randomUUID()), event(UUID.randomUUID())));
+
+        // when
+        outboxPublisher.drain();
+
+        // then
+        verify(outboxEventRepository, times(2)).claimBatch(2);
+        verify(kafkaTemplate, times(4)).send(eq("order.events"), anyString(), anyString());
+    }
+
+    private CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private OutboxEvent event(UUID aggregateId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateId(aggregateId);
+        event.setEventType("OrderConfirmed");
+        event.setPayload("{}");
+        return event;
+    }
+}
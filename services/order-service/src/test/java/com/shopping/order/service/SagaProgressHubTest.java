@@ -0,0 +1,68 @@
+package com.shopping.order.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.order.dto.SagaProgressEvent;
+import com.shopping.order.enums.OrderSagaStatus;
+import com.shopping.order.enums.OrderStatus;
+import com.shopping.order.enums.SagaProgressStep;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class SagaProgressHubTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private SagaProgressHub local;
+    private SagaProgressHub remote;
+
+    @BeforeEach
+    void setUp() {
+        local = spy(hub());
+        remote = spy(hub());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 발행한 진행 이벤트만 Kafka로 전달받아 구독자에게 전송")
+    void onProgressMessage_DeliversOnlyForeignEvents() {
+        // given
+        UUID orderId = UUID.randomUUID();
+        SagaProgressEvent event = new SagaProgressEvent(orderId, SagaProgressStep.RESERVED,
+                OrderStatus.PAYMENT_AUTHORIZING, OrderSagaStatus.RUNNING, null, Instant.now());
+        local.publish(event);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("order.progress"), eq(orderId.toString()), payload.capture());
+
+        // when
+        local.onProgressMessage(payload.getValue());
+        remote.onProgressMessage(payload.getValue());
+
+        // then
+        verify(local, times(1)).deliver(any());
+        verify(remote).deliver(event);
+    }
+
+    private SagaProgressHub hub() {
+        SagaProgressHub hub = new SagaProgressHub(kafkaTemplate, objectMapper);
+        ReflectionTestUtils.setField(hub, "topic", "order.progress");
+        return hub;
+    }
+}
@@ -0,0 +1,88 @@
+package com.shopping.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shopping.order.enums.SagaStatus;
+import com.shopping.order.repository.SagaStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class SagaTimeoutWheelTest {
+
+    @Mock
+    private SagaStateRepository sagaStateRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<SagaTimeoutWheel.SagaTimeout> fired = new LinkedBlockingQueue<>();
+    private SagaTimeoutWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new SagaTimeoutWheel(sagaStateRepository, transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(wheel, "enabled", true);
+        ReflectionTestUtils.setField(wheel, "tickMs", 10L);
+        ReflectionTestUtils.setField(wheel, "slots", 8);
+        wheel.registerMetrics();
+        wheel.setExpiryHandler(fired::add);
+        wheel.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    @DisplayName("마감 시각 순서대로, 바퀴를 여러 번 도는 타임아웃도 제때 만료")
+    void schedule_FiresInDeadlineOrderAcrossRounds() throws InterruptedException {
+        // given
+        UUID later = UUID.randomUUID();
+        UUID sooner = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        // when
+        wheel.schedule(UUID.randomUUID(), later, SagaStatus.RUNNING, now.plus(Duration.ofMillis(300)));
+        wheel.schedule(UUID.randomUUID(), sooner, SagaStatus.COMPENSATING, now.plus(Duration.ofMillis(50)));
+
+        // then
+        SagaTimeoutWheel.SagaTimeout first = fired.poll(2, TimeUnit.SECONDS);
+        SagaTimeoutWheel.SagaTimeout second = fired.poll(2, TimeUnit.SECONDS);
+        assertThat(first).isNotNull();
+        assertThat(first.orderId()).isEqualTo(sooner);
+        assertThat(second).isNotNull();
+        assertThat(second.orderId()).isEqualTo(later);
+        assertThat(LocalDateTime.now()).isAfterOrEqualTo(second.timeoutAt());
+    }
+
+    @Test
+    @DisplayName("이미 지난 타임아웃은 다음 틱에 바로 만료")
+    void schedule_OverdueFiresOnNextTick() throws InterruptedException {
+        // given
+        UUID orderId = UUID.randomUUID();
+
+        // when
+        wheel.schedule(UUID.randomUUID(), orderId, SagaStatus.RUNNING, LocalDateTime.now().minusSeconds(1));
+
+        // then
+        SagaTimeoutWheel.SagaTimeout timeout = fired.poll(1, TimeUnit.SECONDS);
+        assertThat(timeout).isNotNull();
+        assertThat(timeout.orderId()).isEqualTo(orderId);
+    }
+}
@@ -0,0 +1,136 @@
+package com.shopping.order.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.shopping.order.entity.OrderEntity;
+import com.shopping.order.entity.SagaState;
+import com.shopping.order.enums.SagaStatus;
+import com.shopping.order.repository.OrderRepository;
+import com.shopping.order.repository.SagaStateRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class StuckSagaReaperTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private SagaStateRepository sagaStateRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SagaTimeoutWheel sagaTimeoutWheel;
+
+    private StuckSagaReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new StuckSagaReaper(orderService, orderRepository, sagaStateRepository, transactionTemplate,
+                sagaTimeoutWheel);
+        ReflectionTestUtils.setField(reaper, "pageSize", 2);
+        ReflectionTestUtils.setField(reaper, "maxPagesPerRun", 10);
+        ReflectionTestUtils.setField(reaper, "workers", 2);
+        reaper.start();
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reaper.stop();
+    }
+
+    @Test
+    @DisplayName("타임아웃 사가를 페이지 단위로 읽고, 다른 리퍼가 잡은 사가는 건너뜀")
+    void reapTimedOutSagas_PagesAndSkipsLockedSagas() {
+        // given
+        SagaState first = saga(SagaStatus.RUNNING, 3);
+        SagaState second = saga(SagaStatus.RUNNING, 2);
+        SagaState third = saga(SagaStatus.RUNNING, 1);
+        when(sagaStateRepository.findTimedOutPage(eq(SagaStatus.RUNNING), any(), any(Limit.class)))
+                .thenReturn(List.of(first, second));
+        when(sagaStateRepository.findTimedOutPageAfter(eq(SagaStatus.RUNNING), any(),
+                eq(second.getTimeoutAt()), eq(second.getId()), any(Limit.class)))
+                .thenReturn(List.of(third));
+        when(sagaStateRepository.findTimedOutPage(eq(SagaStatus.COMPENSATING), any(), any(Limit.class)))
+                .thenReturn(List.of());
+
+        when(sagaStateRepository.claimTimedOut(eq(first.getId()), eq("RUNNING"), any())).thenReturn(Optional.of(first));
+        when(sagaStateRepository.claimTimedOut(eq(second.getId()), eq("RUNNING"), any())).thenReturn(Optional.empty());
+        when(sagaStateRepository.claimTimedOut(eq(third.getId()), eq("RUNNING"), any())).thenReturn(Optional.of(third));
+        when(orderRepository.findById(any())).thenAnswer(invocation -> Optional.of(order(invocation.getArgument(0))));
+
+        // when
+        reaper.reapTimedOutSagas();
+
+        // then
+        verify(orderService).markSagaCompensating(eq(first.getOrderId()), any());
+        verify(orderService).markSagaCompensating(eq(third.getOrderId()), any());
+        verify(orderService, never()).markSagaCompensating(eq(second.getOrderId()), any());
+    }
+
+    @Test
+    @DisplayName("보상 중 멈춘 사가는 각자의 트랜잭션에서 재시도")
+    void reapTimedOutSagas_RetriesStuckCompensation() {
+        // given
+        SagaState stuck = saga(SagaStatus.COMPENSATING, 1);
+        when(sagaStateRepository.findTimedOutPage(eq(SagaStatus.RUNNING), any(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(sagaStateRepository.findTimedOutPage(eq(SagaStatus.COMPENSATING), any(), any(Limit.class)))
+                .thenReturn(List.of(stuck));
+        when(sagaStateRepository.claimTimedOut(eq(stuck.getId()), eq("COMPENSATING"), any()))
+                .thenReturn(Optional.of(stuck));
+
+        // when
+        reaper.reapTimedOutSagas();
+
+        // then
+        verify(orderService).retryCompensation(stuck);
+        verify(sagaStateRepository, never()).findTimedOutPageAfter(any(), any(), any(), any(), any(Limit.class));
+    }
+
+    private SagaState saga(SagaStatus status, int minutesOverdue) {
+        SagaState saga = new SagaState();
+        saga.setId(UUID.randomUUID());
+        saga.setOrderId(UUID.randomUUID());
+        saga.setStatus(status);
+        saga.setCurrentStep("PAYMENT_AUTHORIZING");
+        saga.setRetryCount(0);
+        saga.setTimeoutAt(LocalDateTime.now().minusMinutes(minutesOverdue));
+        return saga;
+    }
+
+    private OrderEntity order(UUID orderId) {
+        OrderEntity order = new OrderEntity();
+        order.setId(orderId);
+        return order;
+    }
+}
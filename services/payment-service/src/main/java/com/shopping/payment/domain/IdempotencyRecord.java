@@ -2,27 +2,46 @@ package com.shopping.payment.domain;
 
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.Instant;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "idempotency_store")
-public class IdempotencyRecord {
+public class IdempotencyRecord implements Persistable<IdempotencyRecordId> {
 
     @EmbeddedId
     private IdempotencyRecordId id;
 
     private Instant processedAt;
 
+    // save() persists instead of merging, so a duplicate key fails on the primary key rather than updating.
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
     @PrePersist
     void prePersist() {
         if (processedAt == null) {
             processedAt = Instant.now();
         }
     }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -21,7 +21,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Handles payment commands at most once per event id. The command, the events it enqueues to the outbox and
+ * its {@code idempotency_store} record are written in one transaction, so a duplicate that got past the
+ * idempotency check fails on the record's primary key and rolls back with it; the redelivery is then skipped.
+ * A command rejected by the payment state is recorded on its own, after its transaction rolled back.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -31,6 +38,7 @@ public class PaymentCommandConsumer {
     private final PaymentCommandService paymentCommandService;
     private final PaymentEventProducer paymentEventProducer;
     private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${payment.kafka.consumer-id:payment-command-consumer}")
     private String consumerId;
@@ -64,37 +72,55 @@ public class PaymentCommandConsumer {
             return;
         }
 
+        Object command;
         try {
-            CommandProcessingResult result = switch (meta.getEventType()) {
-                case "AuthorizePaymentCommand" -> paymentCommandService.handleAuthorize(
-                        objectMapper.treeToValue(envelope.getData(), AuthorizePaymentCommand.class),
-                        resolveIdempotencyKey(meta));
-                case "CapturePaymentCommand" -> paymentCommandService.handleCapture(
-                        objectMapper.treeToValue(envelope.getData(), CapturePaymentCommand.class));
-                case "VoidPaymentCommand" -> paymentCommandService.handleVoid(
-                        objectMapper.treeToValue(envelope.getData(), VoidPaymentCommand.class));
-                case "RefundPaymentCommand" -> paymentCommandService.handleRefund(
-                        objectMapper.treeToValue(envelope.getData(), RefundPaymentCommand.class));
-                default -> {
-                    log.warn("Unsupported payment command type: {}", meta.getEventType());
-                    yield null;
-                }
-            };
-
-            if (result != null) {
-                paymentEventProducer.publishEvent(result.eventType(), result.eventData(), meta);
-            }
-
+            command = readCommand(meta.getEventType(), envelope.getData());
+        } catch (JsonProcessingException parsingException) {
+            log.error("Unable to parse payment command eventId={}", eventId, parsingException);
             idempotencyService.markProcessed(consumerId, eventId);
+            return;
+        }
+        if (command == null) {
+            log.warn("Unsupported payment command type: {}", meta.getEventType());
+            idempotencyService.markProcessed(consumerId, eventId);
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                CommandProcessingResult result = handle(command, meta);
+                if (result != null) {
+                    paymentEventProducer.publishEvent(result.eventType(), result.eventData(), meta);
+                }
+                idempotencyService.markProcessed(consumerId, eventId);
+            });
         } catch (InvalidPaymentStateException | ResourceNotFoundException knownException) {
             log.warn("Business command handling issue for eventId={}: {}", eventId, knownException.getMessage());
             idempotencyService.markProcessed(consumerId, eventId);
-        } catch (JsonProcessingException parsingException) {
-            log.error("Unable to parse payment command eventId={}", eventId, parsingException);
-            idempotencyService.markProcessed(consumerId, eventId);
         }
     }
 
+    private Object readCommand(String eventType, JsonNode data) throws JsonProcessingException {
+        return switch (eventType) {
+            case "AuthorizePaymentCommand" -> objectMapper.treeToValue(data, AuthorizePaymentCommand.class);
+            case "CapturePaymentCommand" -> objectMapper.treeToValue(data, CapturePaymentCommand.class);
+            case "VoidPaymentCommand" -> objectMapper.treeToValue(data, VoidPaymentCommand.class);
+            case "RefundPaymentCommand" -> objectMapper.treeToValue(data, RefundPaymentCommand.class);
+            default -> null;
+        };
+    }
+
+    private CommandProcessingResult handle(Object command, EventMeta meta) {
+        return switch (command) {
+            case AuthorizePaymentCommand authorize ->
+                    paymentCommandService.handleAuthorize(authorize, resolveIdempotencyKey(meta));
+            case CapturePaymentCommand capture -> paymentCommandService.handleCapture(capture);
+            case VoidPaymentCommand voidCommand -> paymentCommandService.handleVoid(voidCommand);
+            case RefundPaymentCommand refund -> paymentCommandService.handleRefund(refund);
+            default -> throw new IllegalArgumentException("Unsupported payment command: " + command);
+        };
+    }
+
     private EventEnvelope<JsonNode> readEnvelope(String message) {
         try {
             return objectMapper.readValue(message, new TypeReference<>() {
@@ -0,0 +1,61 @@
+package com.shopping.payment.service;
+
+import com.shopping.payment.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes {@code idempotency_store} rows older than the TTL in bounded batches. The TTL matches the
+ * retention of the consumed topics: once a message can no longer be redelivered its key is not needed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyMaintenanceJob {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final MeterRegistry meterRegistry;
+
+    private Counter purgedCounter;
+
+    @Value("${payment.idempotency.retention.ttl:168h}")
+    private Duration ttl;
+
+    @Value("${payment.idempotency.retention.batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${payment.idempotency.retention.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @PostConstruct
+    void registerMetrics() {
+        purgedCounter = Counter.builder("idempotency.purged")
+                .description("Idempotency records deleted by retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.retention.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = idempotencyRecordRepository.deleteProcessedBefore(cutoff, purgeBatchSize);
+            total += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            purgedCounter.increment(total);
+            log.info("Purged {} idempotency records older than {}", total, cutoff);
+        }
+    }
+}
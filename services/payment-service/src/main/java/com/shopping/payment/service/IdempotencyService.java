@@ -13,10 +13,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class IdempotencyService {
 
     private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyFilter idempotencyFilter;
 
     @Transactional(readOnly = true)
     public boolean isProcessed(String consumerId, UUID eventId) {
-        return idempotencyRecordRepository.existsById(new IdempotencyRecordId(consumerId, eventId));
+        if (!idempotencyFilter.mightBeProcessed(consumerId, eventId)) {
+            return false;
+        }
+        boolean processed = idempotencyRecordRepository.existsById(new IdempotencyRecordId(consumerId, eventId));
+        if (processed) {
+            idempotencyFilter.recordDuplicates(1);
+        }
+        return processed;
     }
 
     @Transactional
@@ -24,5 +32,6 @@ public class IdempotencyService {
         IdempotencyRecord record = new IdempotencyRecord();
         record.setId(new IdempotencyRecordId(consumerId, eventId));
         idempotencyRecordRepository.save(record);
+        idempotencyFilter.put(consumerId, eventId);
     }
 }
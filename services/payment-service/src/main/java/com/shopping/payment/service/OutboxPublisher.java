@@ -5,7 +5,15 @@ import com.shopping.payment.repository.OutboxEventRepository;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +21,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Component
@@ -23,6 +31,7 @@ public class OutboxPublisher {
     private final OutboxEventRepository outboxEventRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final Tracer tracer;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${payment.kafka.events-topic:payment.events}")
     private String eventsTopic;
@@ -30,28 +39,99 @@ public class OutboxPublisher {
     @Value("${payment.outbox.batch-size:100}")
     private int batchSize;
 
-    @Transactional
+    @Value("${payment.outbox.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    @Value("${payment.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
     @Scheduled(fixedDelayString = "${payment.outbox.publish-interval-ms:2000}")
     public void publishPendingEvents() {
-        List<OutboxEvent> events = outboxEventRepository
-                .findByPublishedFalseOrderByCreatedAtAsc(PageRequest.of(0, batchSize));
+        // keep going while full pages are acknowledged, but leave the shared scheduler thread to other jobs
+        // after max-batches-per-run pages; the next run picks up the rest
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (publishBatch() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository
+                    .findByPublishedFalseOrderByCreatedAtAsc(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<UUID> acknowledged = sendAll(events);
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.markPublished(acknowledged, LocalDateTime.now());
+            }
+            if (acknowledged.size() < events.size()) {
+                log.warn("{} of {} outbox events were not acknowledged, will retry",
+                        events.size() - acknowledged.size(), events.size());
+            }
+            return acknowledged.size();
+        });
+        int count = published == null ? 0 : published;
+        if (count > 0) {
+            log.info("Published {} outbox events", count);
+        }
+        return count;
+    }
+
+    /**
+     * Sends the whole page without waiting per record, then collects the broker acks. A row only counts
+     * as published when its own send and every earlier send for the same aggregate were acknowledged.
+     */
+    private List<UUID> sendAll(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> acks = new ArrayList<>(events.size());
         for (OutboxEvent event : events) {
-            publishWithTrace(event);
+            acks.add(publishWithTrace(event));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        Set<String> failedAggregates = new HashSet<>();
+        List<UUID> acknowledged = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            boolean acked = awaitAck(event, acks.get(i), deadline);
+            if (acked && !failedAggregates.contains(event.getAggregateId())) {
+                acknowledged.add(event.getId());
+            } else {
+                failedAggregates.add(event.getAggregateId());
+            }
         }
-        if (!events.isEmpty()) {
-            log.info("Published {} outbox events", events.size());
+        return acknowledged;
+    }
+
+    private boolean awaitAck(OutboxEvent event, CompletableFuture<?> ack, long deadline) {
+        try {
+            ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox event {} was not acknowledged: {}", event.getId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
-    private void publishWithTrace(OutboxEvent event) {
+    private CompletableFuture<?> publishWithTrace(OutboxEvent event) {
         Span span = buildSpan(event);
         try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
-            kafkaTemplate.send(eventsTopic, event.getAggregateId(), event.getPayload());
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
-        } finally {
+            return kafkaTemplate.send(eventsTopic, event.getAggregateId(), event.getPayload())
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            span.error(ex);
+                        }
+                        span.end();
+                    });
+        } catch (RuntimeException e) {
+            span.error(e);
             span.end();
+            return CompletableFuture.failedFuture(e);
         }
     }
 
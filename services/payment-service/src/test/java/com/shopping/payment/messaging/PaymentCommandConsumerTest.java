@@ -1,15 +1,21 @@
 package com.shopping.payment.messaging;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopping.payment.exception.InvalidPaymentStateException;
 import com.shopping.payment.messaging.model.AuthorizePaymentCommand;
+import com.shopping.payment.messaging.model.CapturePaymentCommand;
 import com.shopping.payment.service.CommandProcessingResult;
 import com.shopping.payment.service.IdempotencyService;
 import com.shopping.payment.service.PaymentCommandService;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +23,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentCommandConsumerTest {
@@ -33,6 +41,9 @@ class PaymentCommandConsumerTest {
     @Mock
     private PaymentEventProducer paymentEventProducer;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private PaymentCommandConsumer paymentCommandConsumer;
 
@@ -47,6 +58,7 @@ class PaymentCommandConsumerTest {
                 eventId, orderId);
 
         when(idempotencyService.isProcessed(any(), any())).thenReturn(false);
+        runInTransaction();
         when(paymentCommandService.handleAuthorize(any(AuthorizePaymentCommand.class), any()))
                 .thenReturn(new CommandProcessingResult("PaymentAuthorized", null));
 
@@ -57,4 +69,33 @@ class PaymentCommandConsumerTest {
         verify(paymentCommandService).handleAuthorize(any(AuthorizePaymentCommand.class), any());
         verify(idempotencyService).markProcessed(any(), any());
     }
+
+    @Test
+    @DisplayName("결제 상태로 거절된 커맨드는 롤백 후 별도로 처리 완료 기록")
+    void onMessage_RejectedCommand_MarksProcessedAfterRollback() {
+        // given
+        UUID eventId = UUID.randomUUID();
+        String payload = String.format(
+                "{\"meta\": {\"eventType\": \"CapturePaymentCommand\", \"eventId\": \"%s\"}, \"data\": {\"paymentId\": \"%s\"}}",
+                eventId, UUID.randomUUID());
+
+        when(idempotencyService.isProcessed(any(), eq(eventId))).thenReturn(false);
+        runInTransaction();
+        when(paymentCommandService.handleCapture(any(CapturePaymentCommand.class)))
+                .thenThrow(new InvalidPaymentStateException("Payment is not in AUTHORIZED state"));
+
+        // when
+        paymentCommandConsumer.consume(payload);
+
+        // then
+        verify(paymentEventProducer, never()).publishEvent(any(), any(), any());
+        verify(idempotencyService).markProcessed(any(), eq(eventId));
+    }
+
+    private void runInTransaction() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
 }
@@ -10,6 +10,7 @@ import com.shopping.product.kafka.ProductEventPublisher;
 import com.shopping.product.service.ProductService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -64,6 +65,11 @@ public class ProductController {
         return product;
     }
 
+    @PostMapping("/batch")
+    public List<ProductResponse> getProductsByIds(@RequestBody @Size(max = 500) List<UUID> ids) {
+        return productService.getProducts(ids);
+    }
+
     @GetMapping("/{id}/variants")
     public List<ProductVariantResponse> getProductVariants(@PathVariable UUID id) {
         return productService.getVariants(id);
@@ -1,6 +1,7 @@
 package com.shopping.product.repository;
 
 import com.shopping.product.domain.Product;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
@@ -16,6 +17,10 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("select p from Product p where p.id = :id")
     Optional<Product> findDetailedById(@Param("id") UUID id);
 
+    @Override
+    @EntityGraph(attributePaths = {"category"})
+    List<Product> findAllById(Iterable<UUID> ids);
+
     @Query(value = """
         SELECT p.* FROM products p
         WHERE (:filterCategory = false OR p.category_id IN :categoryIds)
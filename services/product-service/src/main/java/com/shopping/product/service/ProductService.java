@@ -15,7 +15,9 @@ import com.shopping.product.repository.CategoryRepository;
 import com.shopping.product.repository.ProductRepository;
 import com.shopping.product.repository.ProductVariantRepository;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -161,6 +163,20 @@ public class ProductService {
         return toProductResponse(product, product.getVariants());
     }
 
+    /**
+     * Looks up several products in one query. Unknown ids are left out of the result rather than failing the
+     * whole batch, and variants are not loaded.
+     */
+    public List<ProductResponse> getProducts(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findAllById(new LinkedHashSet<>(productIds))
+                .stream()
+                .map(product -> toProductResponse(product, null))
+                .toList();
+    }
+
     @Transactional
     @CacheEvict(value = "productDetails", key = "#productId")
     public List<ProductVariantResponse> addVariants(UUID productId, AddVariantsRequest request) {
@@ -78,6 +78,27 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("iPhone"));
     }
 
+    @Test
+    @DisplayName("상품 일괄 조회 API")
+    void getProductsByIds_Api() throws Exception {
+        // given
+        UUID productId = UUID.randomUUID();
+        ProductResponse product = ProductResponse.builder()
+                .id(productId)
+                .name("iPhone")
+                .build();
+
+        when(productService.getProducts(List.of(productId))).thenReturn(List.of(product));
+
+        // when & then
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + productId + "\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(productId.toString()))
+                .andExpect(jsonPath("$[0].name").value("iPhone"));
+    }
+
     @Test
     @DisplayName("카테고리 트리 조회 API")
     void getCategories_Api() throws Exception {
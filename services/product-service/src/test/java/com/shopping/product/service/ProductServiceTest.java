@@ -19,6 +19,7 @@ import com.shopping.product.repository.ProductRepository;
 import com.shopping.product.repository.ProductVariantRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -104,6 +105,27 @@ class ProductServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("상품 일괄 조회 - 한 번의 조회로 존재하는 상품만 반환")
+    void getProducts_SingleQuery() {
+        // given
+        UUID productId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("Test Product");
+        product.setBasePrice(1000);
+
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        // when
+        List<ProductResponse> responses = productService.getProducts(List.of(productId, missingId, productId));
+
+        // then
+        assertThat(responses).extracting(ProductResponse::id).containsExactly(productId);
+        verify(productRepository).findAllById(Set.of(productId, missingId));
+    }
+
     @Test
     @DisplayName("상품 검색 성공")
     void searchProducts_Success() {
@@ -1,7 +1,15 @@
 package com.shopping.review.outbox;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,7 +17,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Component
@@ -18,6 +26,7 @@ public class OutboxPublisher {
 
     private final OutboxEventRepository outboxEventRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.kafka.topics.review-events:review.events}")
     private String reviewEventsTopic;
@@ -25,18 +34,90 @@ public class OutboxPublisher {
     @Value("${app.outbox.batch-size:100}")
     private int batchSize;
 
-    @Transactional
+    @Value("${app.outbox.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    @Value("${app.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
     @Scheduled(fixedDelayString = "${app.outbox.publish-interval-ms:2000}")
     public void publishPendingEvents() {
-        List<OutboxEvent> events = outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(PageRequest.of(0, batchSize));
+        // keep going while full pages are acknowledged, but leave the shared scheduler thread to other jobs
+        // after max-batches-per-run pages; the next run picks up the rest
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            if (publishBatch() < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository
+                    .findByPublishedFalseOrderByCreatedAtAsc(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<UUID> acknowledged = sendAll(events);
+            if (!acknowledged.isEmpty()) {
+                outboxEventRepository.markPublished(acknowledged, LocalDateTime.now());
+            }
+            if (acknowledged.size() < events.size()) {
+                log.warn("{} of {} outbox events were not acknowledged, will retry",
+                        events.size() - acknowledged.size(), events.size());
+            }
+            return acknowledged.size();
+        });
+        int count = published == null ? 0 : published;
+        if (count > 0) {
+            log.info("Published {} outbox events", count);
+        }
+        return count;
+    }
+
+    /**
+     * Sends the whole page without waiting per record, then collects the broker acks. A row only counts
+     * as published when its own send and every earlier send for the same aggregate were acknowledged.
+     */
+    private List<UUID> sendAll(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> acks = new ArrayList<>(events.size());
         for (OutboxEvent event : events) {
-            kafkaTemplate.send(reviewEventsTopic, event.getAggregateId().toString(), event.getPayload());
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
+            acks.add(send(event));
         }
-        if (!events.isEmpty()) {
-            log.info("Published {} outbox events", events.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        Set<UUID> failedAggregates = new HashSet<>();
+        List<UUID> acknowledged = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            boolean acked = awaitAck(event, acks.get(i), deadline);
+            if (acked && !failedAggregates.contains(event.getAggregateId())) {
+                acknowledged.add(event.getId());
+            } else {
+                failedAggregates.add(event.getAggregateId());
+            }
+        }
+        return acknowledged;
+    }
+
+    private boolean awaitAck(OutboxEvent event, CompletableFuture<?> ack, long deadline) {
+        try {
+            ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox event {} was not acknowledged: {}", event.getId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            return kafkaTemplate.send(reviewEventsTopic, event.getAggregateId().toString(), event.getPayload());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 }
@@ -1,7 +1,8 @@
 package com.shopping.review.outbox;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -9,17 +10,19 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class OutboxPublisherTest {
@@ -30,6 +33,9 @@ class OutboxPublisherTest {
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OutboxPublisher outboxPublisher;
 
@@ -37,6 +43,10 @@ class OutboxPublisherTest {
     void setUp() {
         ReflectionTestUtils.setField(outboxPublisher, "batchSize", 100);
         ReflectionTestUtils.setField(outboxPublisher, "reviewEventsTopic", "review.events");
+        ReflectionTestUtils.setField(outboxPublisher, "ackTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxPublisher, "maxBatchesPerRun", 10);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -44,6 +54,7 @@ class OutboxPublisherTest {
     void publishPendingEvents() {
         UUID reviewId = UUID.randomUUID();
         OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
         event.setAggregateId(reviewId);
         event.setPayload("{\"reviewId\":\"" + reviewId + "\"}");
         event.setPublished(false);
@@ -51,14 +62,31 @@ class OutboxPublisherTest {
 
         when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
                 .thenReturn(List.of(event));
+        when(kafkaTemplate.send("review.events", reviewId.toString(), event.getPayload()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         outboxPublisher.publishPendingEvents();
 
         verify(kafkaTemplate).send("review.events", reviewId.toString(), event.getPayload());
-        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
-        verify(outboxEventRepository).save(captor.capture());
-        assertThat(captor.getValue().isPublished()).isTrue();
-        assertThat(captor.getValue().getPublishedAt()).isNotNull();
+        verify(outboxEventRepository).markPublished(eq(List.of(event.getId())), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("브로커 확인 실패 시 발행 완료 처리하지 않음")
+    void publishPendingEvents_notAcknowledged() {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setAggregateId(UUID.randomUUID());
+        event.setPayload("{}");
+
+        when(outboxEventRepository.findByPublishedFalseOrderByCreatedAtAsc(any(Pageable.class)))
+                .thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        outboxPublisher.publishPendingEvents();
+
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
     }
 
     @Test
@@ -70,6 +98,6 @@ class OutboxPublisherTest {
         outboxPublisher.publishPendingEvents();
 
         verify(kafkaTemplate, never()).send(any(), any(), any());
-        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any(LocalDateTime.class));
     }
 }
@@ -0,0 +1,94 @@
+"""End-to-end saga latency benchmark for order-service.
+
+Drives the full checkout flow (add to cart -> checkout -> approve) and polls
+the order status until the saga reaches a terminal state, then reports
+p50/p99 latency from approve to CONFIRMED/FAILED.
+
+Run against the docker-compose stack, once per outbox relay mode:
+
+    # before: polling relay only
+    APP_OUTBOX_NOTIFY_ENABLED=false docker compose up -d order-service
+    python tools/bench/saga_latency.py --orders 200 --label polling
+
+    # after: LISTEN/NOTIFY relay
+    APP_OUTBOX_NOTIFY_ENABLED=true docker compose up -d order-service
+    python tools/bench/saga_latency.py --orders 200 --label notify
+"""
+
+import argparse
+import asyncio
+import statistics
+import time
+import uuid
+
+import httpx
+
+# Seeded in tools/seed/postgres/{product,inventory}-init.sql
+PRODUCT_ID = "b1000000-0000-0000-0000-000000000001"
+VARIANT_ID = "c1000000-0000-0000-0000-000000000002"
+
+TERMINAL_STATUSES = {"CONFIRMED", "FAILED", "CANCELLED"}
+
+
+async def run_saga(client: httpx.AsyncClient, base_url: str, poll_interval: float, timeout: float):
+    user_id = f"bench-{uuid.uuid4()}"
+    await client.post(
+        f"{base_url}/api/carts/user/{user_id}/items",
+        json={"productId": PRODUCT_ID, "variantId": VARIANT_ID, "quantity": 1},
+    )
+    checkout = await client.post(f"{base_url}/api/carts/user/{user_id}/checkout", json={})
+    order_id = checkout.json()["orderId"]
+
+    started = time.perf_counter()
+    await client.post(f"{base_url}/api/orders/{order_id}/approve", json={"paymentMethod": "MOCK"})
+
+    deadline = started + timeout
+    while time.perf_counter() < deadline:
+        res = await client.get(f"{base_url}/api/orders/{order_id}")
+        status = res.json().get("status")
+        if status in TERMINAL_STATUSES:
+            return status, time.perf_counter() - started
+        await asyncio.sleep(poll_interval)
+    return "TIMEOUT", time.perf_counter() - started
+
+
+def percentile(values, pct):
+    ordered = sorted(values)
+    index = max(0, min(len(ordered) - 1, int(round(pct / 100 * len(ordered))) - 1))
+    return ordered[index]
+
+
+async def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--base-url", default="http://localhost:8083")
+    parser.add_argument("--orders", type=int, default=100)
+    parser.add_argument("--concurrency", type=int, default=10)
+    parser.add_argument("--poll-interval", type=float, default=0.05)
+    parser.add_argument("--timeout", type=float, default=60.0)
+    parser.add_argument("--label", default="run")
+    args = parser.parse_args()
+
+    semaphore = asyncio.Semaphore(args.concurrency)
+
+    async with httpx.AsyncClient(timeout=10.0) as client:
+        async def bounded():
+            async with semaphore:
+                return await run_saga(client, args.base_url, args.poll_interval, args.timeout)
+
+        results = await asyncio.gather(*(bounded() for _ in range(args.orders)))
+
+    latencies = [elapsed * 1000 for status, elapsed in results if status != "TIMEOUT"]
+    outcomes = {}
+    for status, _ in results:
+        outcomes[status] = outcomes.get(status, 0) + 1
+
+    print(f"[{args.label}] sagas={len(results)} outcomes={outcomes}")
+    if latencies:
+        print(f"[{args.label}] p50={percentile(latencies, 50):.0f}ms "
+              f"p99={percentile(latencies, 99):.0f}ms "
+              f"mean={statistics.mean(latencies):.0f}ms "
+              f"max={max(latencies):.0f}ms")
+
+
+if __name__ == "__main__":
+    asyncio.run(main())
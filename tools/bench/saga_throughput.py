@@ -0,0 +1,104 @@
+"""Saga throughput benchmark for order-service's event consumers.
+
+Starts a burst of sagas (add to cart -> checkout -> approve) and waits for
+each to reach a terminal state through the long-poll status endpoint. It then
+reports completed sagas per second along with p50/p99 approve-to-terminal
+latency. Run it once per partition count and consumer setting and compare the
+labelled lines.
+
+The saga topics have to be recreated with the partition count under test.
+Kafka can add partitions but not remove them, so delete the topics first:
+
+    for t in inventory.events payment.events; do
+      docker compose exec kafka kafka-topics --bootstrap-server kafka:29092 --delete --topic $t
+      docker compose exec kafka kafka-topics --bootstrap-server kafka:29092 --create --topic $t \\
+        --partitions $P --replication-factor 1
+    done
+
+Then restart order-service with matching listener concurrency. Optionally set
+key-ordered lanes inside each partition:
+
+    APP_KAFKA_LISTENER_CONCURRENCY_INVENTORY_EVENTS=$P \\
+    APP_KAFKA_LISTENER_CONCURRENCY_PAYMENT_EVENTS=$P \\
+    APP_SAGA_CONSUMER_KEY_PARALLELISM=1 docker compose up -d order-service
+    python tools/bench/saga_throughput.py --sagas 1000 --label "p=$P lanes=1"
+
+Suggested matrix: P in 1, 3, 12, each with lanes 1 and 4. inventory-service
+and payment-service consume the command topics and can become the bottleneck
+first, so keep their concurrency at least at P as well.
+"""
+
+import argparse
+import asyncio
+import time
+import uuid
+
+import httpx
+
+from saga_latency import PRODUCT_ID, TERMINAL_STATUSES, VARIANT_ID, percentile
+
+LONG_POLL_MS = 20000
+
+
+async def start_saga(client: httpx.AsyncClient, base_url: str):
+    user_id = f"bench-{uuid.uuid4()}"
+    await client.post(
+        f"{base_url}/api/carts/user/{user_id}/items",
+        json={"productId": PRODUCT_ID, "variantId": VARIANT_ID, "quantity": 1},
+    )
+    checkout = await client.post(f"{base_url}/api/carts/user/{user_id}/checkout", json={})
+    order_id = checkout.json()["orderId"]
+    res = await client.post(f"{base_url}/api/orders/{order_id}/approve", json={"paymentMethod": "MOCK"})
+    return order_id, res.json()["status"], time.perf_counter()
+
+
+async def await_terminal(client: httpx.AsyncClient, base_url: str, order_id: str, status: str, timeout: float):
+    deadline = time.perf_counter() + timeout
+    while status not in TERMINAL_STATUSES and time.perf_counter() < deadline:
+        res = await client.get(
+            f"{base_url}/api/orders/{order_id}/status",
+            params={"seen": status, "waitMs": LONG_POLL_MS},
+        )
+        status = res.json()["status"]
+    return status if status in TERMINAL_STATUSES else "TIMEOUT"
+
+
+async def run_saga(client, base_url, semaphore, timeout):
+    async with semaphore:
+        order_id, status, started = await start_saga(client, base_url)
+    status = await await_terminal(client, base_url, order_id, status, timeout)
+    return status, started, time.perf_counter()
+
+
+async def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--base-url", default="http://localhost:8083")
+    parser.add_argument("--sagas", type=int, default=500)
+    parser.add_argument("--start-concurrency", type=int, default=50,
+                        help="requests in flight while starting sagas")
+    parser.add_argument("--timeout", type=float, default=120.0)
+    parser.add_argument("--label", default="run")
+    args = parser.parse_args()
+
+    semaphore = asyncio.Semaphore(args.start_concurrency)
+    limits = httpx.Limits(max_connections=args.sagas + args.start_concurrency)
+    async with httpx.AsyncClient(timeout=LONG_POLL_MS / 1000 + 10, limits=limits) as client:
+        began = time.perf_counter()
+        results = await asyncio.gather(
+            *(run_saga(client, args.base_url, semaphore, args.timeout) for _ in range(args.sagas)))
+
+    outcomes = {}
+    for status, _, _ in results:
+        outcomes[status] = outcomes.get(status, 0) + 1
+    finished = [(started, ended) for status, started, ended in results if status != "TIMEOUT"]
+
+    print(f"[{args.label}] sagas={len(results)} outcomes={outcomes}")
+    if finished:
+        elapsed = max(ended for _, ended in finished) - began
+        latencies = [(ended - started) * 1000 for started, ended in finished]
+        print(f"[{args.label}] throughput={len(finished) / elapsed:.1f} sagas/s over {elapsed:.1f}s "
+              f"p50={percentile(latencies, 50):.0f}ms p99={percentile(latencies, 99):.0f}ms")
+
+
+if __name__ == "__main__":
+    asyncio.run(main())
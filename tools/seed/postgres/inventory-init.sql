@@ -54,12 +54,26 @@ CREATE TABLE IF NOT EXISTS outbox_events (
     published_at TIMESTAMP
 );
 
+-- Hot SKU stock movements, folded into inventory asynchronously
+CREATE TABLE IF NOT EXISTS hot_stock_journal (
+    id BIGSERIAL PRIMARY KEY,
+    inventory_id UUID NOT NULL REFERENCES inventory(id),
+    reserved_delta INTEGER NOT NULL,
+    total_delta INTEGER NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 
 CREATE INDEX idx_inventory_product ON inventory(product_id, variant_id);
 CREATE INDEX idx_inventory_sku ON inventory(sku);
 CREATE INDEX idx_reservations_order ON inventory_reservations(order_id);
 CREATE INDEX idx_reservations_status ON inventory_reservations(status, expires_at);
-CREATE INDEX idx_outbox_unpublished ON outbox_events(published, created_at) WHERE NOT published;
+CREATE INDEX idx_outbox_unpublished ON outbox_events(created_at) WHERE NOT published;
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at) WHERE published;
+CREATE INDEX idx_idempotency_processed_at ON idempotency_store(processed_at);
+CREATE INDEX idx_hot_stock_journal_inventory ON hot_stock_journal(inventory_id);
+-- Retention purges small slices continuously; vacuum early so freed pages and index entries are reused
+ALTER TABLE idempotency_store SET (autovacuum_vacuum_scale_factor = 0.02, autovacuum_vacuum_threshold = 1000);
 
 -- ============================================================
 -- Seed Inventory Data
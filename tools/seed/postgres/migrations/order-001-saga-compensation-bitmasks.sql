@@ -0,0 +1,19 @@
+-- Moves saga compensation steps from the saga_state.context jsonb to the bitmask columns
+-- (CANCEL_INVENTORY = 1, VOID_PAYMENT = 2) on an order_db created before they existed.
+-- order-init.sql only runs on an empty volume and already creates the columns; apply this one by hand:
+--   psql -h localhost -p 5434 -U order_user -d order_db -f order-001-saga-compensation-bitmasks.sql
+-- Safe to re-run. Rows it misses are still converted by the order service when it next loads them.
+
+BEGIN;
+
+ALTER TABLE saga_state ADD COLUMN IF NOT EXISTS compensation_expected SMALLINT;
+ALTER TABLE saga_state ADD COLUMN IF NOT EXISTS compensation_completed SMALLINT;
+
+UPDATE saga_state SET
+    compensation_expected = (CASE WHEN context->'expectedSteps' ? 'CANCEL_INVENTORY' THEN 1 ELSE 0 END)
+        | (CASE WHEN context->'expectedSteps' ? 'VOID_PAYMENT' THEN 2 ELSE 0 END),
+    compensation_completed = (CASE WHEN context->'completedSteps' ? 'CANCEL_INVENTORY' THEN 1 ELSE 0 END)
+        | (CASE WHEN context->'completedSteps' ? 'VOID_PAYMENT' THEN 2 ELSE 0 END)
+WHERE compensation_expected IS NULL AND context ? 'expectedSteps';
+
+COMMIT;
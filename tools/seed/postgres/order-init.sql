@@ -34,6 +34,7 @@ CREATE TABLE IF NOT EXISTS order_items (
 -- Transactional Outbox
 CREATE TABLE IF NOT EXISTS outbox_events (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    seq BIGSERIAL NOT NULL,
     aggregate_type VARCHAR(50) NOT NULL,
     aggregate_id UUID NOT NULL,
     event_type VARCHAR(100) NOT NULL,
@@ -66,12 +67,21 @@ CREATE TABLE IF NOT EXISTS saga_state (
     timeout_at TIMESTAMP,
     retry_count INTEGER DEFAULT 0,
     context JSONB DEFAULT '{}',
+    -- Compensation step bitmasks: CANCEL_INVENTORY = 1, VOID_PAYMENT = 2
+    compensation_expected SMALLINT,
+    compensation_completed SMALLINT,
     CONSTRAINT chk_saga_status CHECK (status IN ('RUNNING', 'COMPLETED', 'COMPENSATING', 'FAILED'))
 );
 
-CREATE INDEX idx_orders_user ON orders(user_id);
+CREATE INDEX idx_orders_user ON orders(user_id, created_at DESC, id DESC);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_order_items_order ON order_items(order_id);
-CREATE INDEX idx_outbox_unpublished ON outbox_events(published, created_at) WHERE NOT published;
-CREATE INDEX idx_saga_status ON saga_state(status, timeout_at);
+CREATE INDEX idx_outbox_unpublished ON outbox_events(created_at) WHERE NOT published;
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at) WHERE published;
+CREATE INDEX idx_outbox_unpublished_seq ON outbox_events(seq) WHERE NOT published;
+CREATE INDEX idx_outbox_unpublished_aggregate ON outbox_events(aggregate_id, seq) WHERE NOT published;
+CREATE INDEX idx_saga_status ON saga_state(status, timeout_at, id);
 CREATE INDEX idx_idempotency ON idempotency_store(consumer_id, event_id);
+CREATE INDEX idx_idempotency_processed_at ON idempotency_store(processed_at);
+-- Retention purges small slices continuously; vacuum early so freed pages and index entries are reused
+ALTER TABLE idempotency_store SET (autovacuum_vacuum_scale_factor = 0.02, autovacuum_vacuum_threshold = 1000);
@@ -56,4 +56,8 @@ CREATE TABLE IF NOT EXISTS outbox_events (
 CREATE INDEX idx_payments_order ON payments(order_id);
 CREATE INDEX idx_payments_status ON payments(status);
 CREATE INDEX idx_refunds_payment ON refunds(payment_id);
-CREATE INDEX idx_outbox_unpublished ON outbox_events(published, created_at) WHERE NOT published;
+CREATE INDEX idx_outbox_unpublished ON outbox_events(created_at) WHERE NOT published;
+CREATE INDEX idx_outbox_published_at ON outbox_events(published_at) WHERE published;
+CREATE INDEX idx_idempotency_processed_at ON idempotency_store(processed_at);
+-- Retention purges small slices continuously; vacuum early so freed pages and index entries are reused
+ALTER TABLE idempotency_store SET (autovacuum_vacuum_scale_factor = 0.02, autovacuum_vacuum_threshold = 1000);